@@ -0,0 +1,18 @@
+package com.example.LostAndFound.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Spring Cache backed by Caffeine. Size, TTL and stats recording come from spring.cache.caffeine.spec;
+ * hit/miss/eviction counts are exported as the cache.* actuator metrics.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    // User lookups without the legacy profilePicture field, see UserService
+    public static final String USERS_BY_ID = "usersById";
+    public static final String USERS_BY_USERNAME = "usersByUsername";
+    public static final String USERS_BY_EMAIL = "usersByEmail";
+}
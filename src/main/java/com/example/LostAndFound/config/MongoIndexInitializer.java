@@ -0,0 +1,195 @@
+package com.example.LostAndFound.config;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.stereotype.Component;
+
+import com.example.LostAndFound.entity.Item;
+import com.example.LostAndFound.entity.Notification;
+import com.example.LostAndFound.entity.RefreshToken;
+import com.example.LostAndFound.entity.User;
+
+/**
+ * Creates the indexes declared on the entities (@Indexed, @TextIndexed, @CompoundIndex, ...),
+ * drops the ones they replaced, then asks the query planner how the hot repository queries would
+ * run and warns about any that would still need a COLLSCAN or would sort in memory.
+ *
+ * Unique indexes come first, synchronously, before the app reports ready: signup and the
+ * field-level user updates rely on them to reject a taken username or email, so without them
+ * duplicates would go in silently. If one cannot be created (database unreachable, duplicates
+ * already stored) startup fails. Everything else runs afterwards on its own thread and only
+ * logs when it fails. Creating an index that already exists with the same definition is a
+ * no-op in MongoDB.
+ */
+@Component
+public class MongoIndexInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoIndexInitializer.class);
+
+    private static final List<Class<?>> INDEXED_ENTITIES = List.of(Item.class, User.class, Notification.class,
+            RefreshToken.class);
+
+    // Indexes an entity no longer declares because a wider one replaced them: collection -> names
+    private static final Map<String, List<String>> OBSOLETE_INDEXES = Map.of(
+            "items", List.of("status_dateReported"));
+
+    // Query shapes of the repository methods that run on every login, signup, dashboard load and list page.
+    // Only the shape matters to the planner, so the values are placeholders.
+    private static final List<HotQuery> HOT_QUERIES = List.of(
+            new HotQuery("UserRepository.findByEmail", "users",
+                    new Document("email", "someone@example.com"), null),
+            new HotQuery("UserRepository.findByUsername", "users",
+                    new Document("username", "someone"), null),
+            new HotQuery("ItemRepository.countByUserIdAndStatus", "items",
+                    new Document("userId", "someone").append("status", Item.ItemStatus.LOST.name()), null),
+            new HotQuery("ItemRepository.findTop5ByUserIdOrderByDateReportedDesc", "items",
+                    new Document("userId", "someone"), new Document("dateReported", -1)),
+            new HotQuery("ItemRepository.findByStatus", "items",
+                    new Document("status", Item.ItemStatus.LOST.name()), null),
+            new HotQuery("ItemRepository.findPage (by status)", "items",
+                    new Document("status", Item.ItemStatus.LOST.name()), new Document("dateReported", -1).append("_id", -1)),
+            new HotQuery("ItemRepository.findPage (all)", "items",
+                    new Document(), new Document("dateReported", -1).append("_id", -1)));
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean createOnStartup;
+    private final boolean verifyOnStartup;
+
+    public MongoIndexInitializer(MongoTemplate mongoTemplate,
+                                 @Value("${app.mongo.indexes.create-on-startup:true}") boolean createOnStartup,
+                                 @Value("${app.mongo.indexes.verify-on-startup:true}") boolean verifyOnStartup) {
+        this.mongoTemplate = mongoTemplate;
+        this.createOnStartup = createOnStartup;
+        this.verifyOnStartup = verifyOnStartup;
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void createUniqueIndexesOnStartup() {
+        if (!createOnStartup) {
+            log.warn("app.mongo.indexes.create-on-startup is off: the unique username/email indexes must exist already");
+            return;
+        }
+        try {
+            createIndexes(true);
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Unique indexes could not be created, refusing to start: " + e.getMessage(), e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeOnStartup() {
+        if (!createOnStartup && !verifyOnStartup) {
+            return;
+        }
+        Thread.ofPlatform().name("mongo-index-init").daemon().start(() -> {
+            try {
+                if (createOnStartup) {
+                    createIndexes(false);
+                    dropObsoleteIndexes();
+                }
+                if (verifyOnStartup) {
+                    verifyHotQueries();
+                }
+            } catch (RuntimeException e) {
+                log.warn("Index initialization skipped: {}", e.getMessage());
+            }
+        });
+    }
+
+    // ------------------- Create -------------------
+    // unique: the unique indexes, any failure thrown; otherwise the rest, each failure only logged
+    public void createIndexes(boolean unique) {
+        IndexResolver resolver = IndexResolver.create(mongoTemplate.getConverter().getMappingContext());
+        for (Class<?> entity : INDEXED_ENTITIES) {
+            IndexOperations indexOps = mongoTemplate.indexOps(entity);
+            resolver.resolveIndexFor(entity).forEach(index -> {
+                if (index.getIndexOptions().getBoolean("unique", false) != unique) {
+                    return;
+                }
+                try {
+                    String name = indexOps.createIndex(index);
+                    log.debug("Index {} ready on {}", name, entity.getSimpleName());
+                } catch (RuntimeException e) {
+                    if (unique) {
+                        throw e;
+                    }
+                    log.warn("Could not create index {} on {}: {}",
+                            index.getIndexKeys().toJson(), entity.getSimpleName(), e.getMessage());
+                }
+            });
+        }
+    }
+
+    private void dropObsoleteIndexes() {
+        OBSOLETE_INDEXES.forEach((collection, names) -> {
+            IndexOperations indexOps = mongoTemplate.indexOps(collection);
+            Set<String> existing = indexOps.getIndexInfo().stream().map(IndexInfo::getName).collect(Collectors.toSet());
+            names.stream().filter(existing::contains).forEach(name -> {
+                indexOps.dropIndex(name);
+                log.info("Dropped index {} on {}, replaced by a wider one", name, collection);
+            });
+        });
+    }
+
+    // ------------------- Verify -------------------
+    // Returns the number of hot queries whose winning plan scans the whole collection or sorts in memory
+    public int verifyHotQueries() {
+        int uncovered = 0;
+        for (HotQuery query : HOT_QUERIES) {
+            Document winningPlan = explain(query);
+            String problem = containsStage(winningPlan, "COLLSCAN") ? "as a COLLSCAN"
+                    : containsStage(winningPlan, "SORT") ? "with an in-memory SORT"
+                    : null;
+            if (problem != null) {
+                uncovered++;
+                log.warn("{} would run {} on '{}': filter={} sort={}. Check the indexes on that collection.",
+                        query.name(), problem, query.collection(), query.filter().toJson(),
+                        query.sort() == null ? "none" : query.sort().toJson());
+            }
+        }
+        if (uncovered == 0) {
+            log.info("All {} hot queries are covered by an index", HOT_QUERIES.size());
+        }
+        return uncovered;
+    }
+
+    private Document explain(HotQuery query) {
+        Document find = new Document("find", query.collection()).append("filter", query.filter());
+        if (query.sort() != null) {
+            find.append("sort", query.sort());
+        }
+        Document result = mongoTemplate.getDb().runCommand(
+                new Document("explain", find).append("verbosity", "queryPlanner"));
+        return result.get("queryPlanner", Document.class).get("winningPlan", Document.class);
+    }
+
+    // Plans are trees: stage -> inputStage / inputStages (and queryPlan on newer servers)
+    private static boolean containsStage(Object plan, String stage) {
+        if (plan instanceof Document node) {
+            if (stage.equals(node.getString("stage"))) {
+                return true;
+            }
+            return node.values().stream().anyMatch(child -> containsStage(child, stage));
+        }
+        if (plan instanceof List<?> children) {
+            return children.stream().anyMatch(child -> containsStage(child, stage));
+        }
+        return false;
+    }
+
+    private record HotQuery(String name, String collection, Document filter, Document sort) {}
+}
@@ -1,44 +1,106 @@
 package com.example.LostAndFound.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import com.example.LostAndFound.service.JwtService;
 import com.example.LostAndFound.service.UserDetailsServiceImpl;
 
+import jakarta.servlet.DispatcherType;
+
 
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 
 @Configuration
 public class SecurityConfig {
+    private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
+    // BCrypt's own limits
+    private static final int MIN_BCRYPT_STRENGTH = 4;
+    private static final int MAX_BCRYPT_STRENGTH = 31;
+
     private final UserDetailsServiceImpl userDetailsService;
 
     public SecurityConfig(UserDetailsServiceImpl userDetailsService) {
         this.userDetailsService = userDetailsService;
     }
 
+    // static: UserService needs it, and SecurityConfig itself depends on UserService via UserDetailsServiceImpl
+    // strength=0 calibrates: the cost whose hash takes closest to target-ms here, within min..max.
+    // Stored hashes with another cost are re-hashed on their next login (see UserService.validateUser).
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public static PasswordEncoder passwordEncoder(@Value("${app.security.bcrypt.strength:0}") int strength,
+                                                  @Value("${app.security.bcrypt.target-ms:100}") long targetMs,
+                                                  @Value("${app.security.bcrypt.min-strength:10}") int minStrength,
+                                                  @Value("${app.security.bcrypt.max-strength:14}") int maxStrength) {
+        if (strength <= 0) {
+            strength = calibrateStrength(targetMs, minStrength, maxStrength);
+        }
+        return new BCryptPasswordEncoder(strength);
+    }
+
+    // Each step of the cost doubles the work, so one timing at a cheap cost is enough to extrapolate
+    static int calibrateStrength(long targetMs, int minStrength, int maxStrength) {
+        int probeStrength = 8;
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(probeStrength);
+        long bestNanos = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {   // the first rounds include JIT warm-up; keep the fastest
+            long startedAt = System.nanoTime();
+            probe.encode("calibration");
+            bestNanos = Math.min(bestNanos, System.nanoTime() - startedAt);
+        }
+        double probeMs = bestNanos / 1e6;
+        int calibrated = probeStrength + (int) Math.round(Math.log(targetMs / probeMs) / Math.log(2));
+        int strength = Math.max(Math.max(minStrength, MIN_BCRYPT_STRENGTH),
+                Math.min(calibrated, Math.min(maxStrength, MAX_BCRYPT_STRENGTH)));
+        log.info("BCrypt strength {}: about {} ms per hash (target {} ms)",
+                strength, Math.round(probeMs * Math.pow(2, strength - probeStrength)), targetMs);
+        return strength;
     }
 
+    // Stateless: each request is authenticated from its JWT (see JwtAuthenticationFilter), no session.
+    // Item listings, images and the live stream stay public; other /api calls need a token.
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtService jwtService) throws Exception {
         return http
             .csrf(csrf -> csrf.disable()) 
+            .cors(Customizer.withDefaults())
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .addFilterBefore(new JwtAuthenticationFilter(jwtService), UsernamePasswordAuthenticationFilter.class)
+            .exceptionHandling(errors -> errors.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
             .authorizeHttpRequests(auth -> auth
-                .anyRequest().permitAll() // Allow all requests temporarily
+                // streamed responses finish on an async dispatch; the request was checked already
+                .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
+                .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                .requestMatchers(HttpMethod.POST, "/api/users/login", "/api/users/signup",
+                        "/api/users/refresh", "/api/users/logout").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/items/export").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.POST, "/api/items/import").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.GET, "/api/items", "/api/items/**", "/api/users/count",
+                        "/api/users/*/profile-picture").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/users").hasRole("ADMIN")
+                .requestMatchers("/api/**").authenticated()
+                .anyRequest().permitAll()   // the static frontend
             )
             .build();
     }
     @Bean
-    public AuthenticationManager authManager(HttpSecurity http) throws Exception {
+    public AuthenticationManager authManager(HttpSecurity http, PasswordEncoder passwordEncoder) throws Exception {
         return http.getSharedObject(AuthenticationManagerBuilder.class)
                    .userDetailsService(userDetailsService)
-                   .passwordEncoder(passwordEncoder())
+                   .passwordEncoder(passwordEncoder)
                    .and()
                    .build();
     }
@@ -0,0 +1,90 @@
+package com.example.LostAndFound.config;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * With spring.threads.virtual.enabled, reports virtual threads that stay pinned to their carrier
+ * (blocking inside a synchronized block or a native frame) for longer than threshold-ms.
+ * Pinned threads hold a carrier, so enough of them serialize the whole server again.
+ * Uses the JFR jdk.VirtualThreadPinned event in-process; each occurrence is logged with the
+ * top of its stack and counted in jvm.threads.virtual.pinned.
+ */
+@Component
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final String PINNED = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 8;
+
+    private final boolean enabled;
+    private final Duration threshold;
+    private final Counter pinned;
+    private RecordingStream recording;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                       @Value("${app.threads.pinning.monitor-enabled:true}") boolean monitorEnabled,
+                                       @Value("${app.threads.pinning.threshold-ms:20}") long thresholdMs) {
+        this.enabled = virtualThreads && monitorEnabled;
+        this.threshold = Duration.ofMillis(thresholdMs);
+        this.pinned = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads pinned to their carrier for longer than app.threads.pinning.threshold-ms")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            recording = new RecordingStream();
+            recording.enable(PINNED).withThreshold(threshold).withStackTrace();
+            recording.onEvent(PINNED, this::pinned);
+            recording.startAsync();
+            log.info("Watching for virtual threads pinned longer than {} ms", threshold.toMillis());
+        } catch (RuntimeException e) {
+            // e.g. JFR not available in this runtime
+            log.warn("Virtual thread pinning monitor not started: {}", e.getMessage());
+        }
+    }
+
+    private void pinned(RecordedEvent event) {
+        pinned.increment();
+        String frames = event.getStackTrace() == null ? "(no stack trace)"
+                : event.getStackTrace().getFrames().stream()
+                        .limit(LOGGED_FRAMES)
+                        .map(VirtualThreadPinningMonitor::frame)
+                        .collect(Collectors.joining("\n\tat ", "\n\tat ", ""));
+        log.warn("Virtual thread {} pinned to its carrier for {} ms{}",
+                event.getThread() == null ? "?" : event.getThread().getJavaName(),
+                event.getDuration().toMillis(), frames);
+    }
+
+    private static String frame(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + "(line " + frame.getLineNumber() + ")";
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recording != null) {
+            recording.close();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.LostAndFound.controller;
+
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import com.example.LostAndFound.repository.StoredImage;
+
+/**
+ * Binary image responses shared by the item and user controllers.
+ * Returning a {@link Resource} body lets Spring MVC answer If-None-Match with 304
+ * and Range requests with 206 partial content on its own.
+ */
+final class ImageResponses {
+
+    private ImageResponses() {}
+
+    static ResponseEntity<Resource> of(StoredImage image, CacheControl cacheControl) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(image.contentType()))
+                .eTag(image.reference())
+                .cacheControl(cacheControl)
+                .body(image.content());
+    }
+}
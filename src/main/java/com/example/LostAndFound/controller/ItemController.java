@@ -199,63 +199,327 @@
 // }
 package com.example.LostAndFound.controller;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.example.LostAndFound.dto.ItemPage;
+import com.example.LostAndFound.dto.ItemSearchQuery;
+import com.example.LostAndFound.dto.ItemStats;
+import com.example.LostAndFound.dto.ItemSummary;
 import com.example.LostAndFound.dto.ReportItemRequest;
 import com.example.LostAndFound.entity.Item;
 import com.example.LostAndFound.entity.User;
 import com.example.LostAndFound.repository.ItemRepository;
+import com.example.LostAndFound.service.ItemBulkService;
 import com.example.LostAndFound.service.ItemService;
+import com.example.LostAndFound.service.ItemStatsService;
+import com.example.LostAndFound.service.ItemStreamService;
+import com.example.LostAndFound.service.JwtService;
 import com.example.LostAndFound.service.UserService;
 // ... existing imports and annotations ...
 
 @RestController
 @RequestMapping("/api/items")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = "X-Next-Cursor")
 public class ItemController {
 
+    private static final Set<String> SUPPORTED_IMAGE_TYPES =
+            Set.of("image/jpeg", "image/png", "image/gif", "image/bmp");
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String CSV = "text/csv";
+
     private final ItemService itemService;
     private final ItemRepository itemRepository;
     private final UserService userService;
-
-    public ItemController(ItemService itemService, ItemRepository itemRepository, UserService userService) {
+    private final ItemStatsService itemStatsService;
+    private final ItemBulkService itemBulkService;
+    private final ItemStreamService itemStreamService;
+    private final CacheControl imageCacheControl;
+    private final CacheControl statsCacheControl;
+
+    public ItemController(ItemService itemService, ItemRepository itemRepository, UserService userService,
+                          ItemStatsService itemStatsService, ItemBulkService itemBulkService,
+                          ItemStreamService itemStreamService,
+                          @Value("${app.images.cache-max-age-seconds:86400}") long imageMaxAge,
+                          @Value("${app.items.stats.cache-max-age-seconds:10}") long statsMaxAge) {
         this.itemService = itemService;
         this.itemRepository = itemRepository;
         this.userService = userService;
+        this.itemStatsService = itemStatsService;
+        this.itemBulkService = itemBulkService;
+        this.itemStreamService = itemStreamService;
+        // Item images never change once reported; the ETag covers revalidation after max-age
+        this.imageCacheControl = CacheControl.maxAge(Duration.ofSeconds(imageMaxAge)).cachePublic();
+        this.statsCacheControl = CacheControl.maxAge(Duration.ofSeconds(statsMaxAge)).cachePublic();
+    }
+
+    // ------------------- Paged listing -------------------
+    // GET /api/items?status=LOST&limit=20&cursor=<nextCursor from the previous page>
+    @GetMapping
+    public ResponseEntity<?> getItems(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        Item.ItemStatus itemStatus = null;
+        if (status != null && !status.isBlank()) {
+            try {
+                itemStatus = Item.ItemStatus.valueOf(status.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(Map.of("message", "Invalid status: " + status));
+            }
+        }
+        try {
+            return ResponseEntity.ok(itemService.getItemPage(itemStatus, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
     }
 
+    // Compatibility endpoints: capped lists, X-Next-Cursor tells callers where to continue via GET /api/items
     @GetMapping("/lost")
-    public List<Item> getLostItems() {
-        // @JsonProperty on Item#getItemImageBase64 will include the base64 in JSON
-        return itemRepository.findByStatus(Item.ItemStatus.LOST);
+    public ResponseEntity<List<ItemSummary>> getLostItems() {
+        // Summaries carry a thumbnailUrl instead of inline base64
+        return legacyList(itemService.getLegacyItemList(Item.ItemStatus.LOST));
     }
 
     @GetMapping("/found")
-    public List<Item> getFoundItems() {
-        return itemRepository.findByStatus(Item.ItemStatus.FOUND);
+    public ResponseEntity<List<ItemSummary>> getFoundItems() {
+        return legacyList(itemService.getLegacyItemList(Item.ItemStatus.FOUND));
     }
 
     @GetMapping("/claimed")
-    public List<Item> getClaimedItems() {
-        return itemRepository.findByStatus(Item.ItemStatus.CLAIMED);
+    public ResponseEntity<List<ItemSummary>> getClaimedItems() {
+        return legacyList(itemService.getLegacyItemList(Item.ItemStatus.CLAIMED));
     }
 
     @GetMapping("/all")
-    public List<Item> getAllItems() {
-        return itemRepository.findAll();
+    public ResponseEntity<List<ItemSummary>> getAllItems() {
+        return legacyList(itemService.getLegacyItemList(null));
+    }
+
+    private ResponseEntity<List<ItemSummary>> legacyList(ItemPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.isHasMore()) {
+            response.header("X-Next-Cursor", page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+
+    // Same lists with Accept: application/x-ndjson, but complete: one summary per line, written
+    // as it comes off the Mongo cursor, so neither side has to hold the whole list
+    @GetMapping(value = "/lost", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamLostItems() {
+        return ndjson(out -> itemService.writeItems(Item.ItemStatus.LOST, out));
+    }
+
+    @GetMapping(value = "/found", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamFoundItems() {
+        return ndjson(out -> itemService.writeItems(Item.ItemStatus.FOUND, out));
+    }
+
+    @GetMapping(value = "/claimed", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamClaimedItems() {
+        return ndjson(out -> itemService.writeItems(Item.ItemStatus.CLAIMED, out));
+    }
+
+    @GetMapping(value = "/all", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamAllItems() {
+        return ndjson(out -> itemService.writeItems(null, out));
+    }
+
+    private static ResponseEntity<StreamingResponseBody> ndjson(StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .cacheControl(CacheControl.noCache())
+                .body(body);
+    }
+
+    // ------------------- Stats -------------------
+    // Home page counters; served from memory (see ItemStatsService), a few seconds stale at most
+    @GetMapping("/stats")
+    public ResponseEntity<ItemStats> getStats() {
+        ItemStats stats = itemStatsService.getStats();
+        if (stats == null) {
+            // Not counted yet
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").build();
+        }
+        return ResponseEntity.ok().cacheControl(statsCacheControl).body(stats);
+    }
+
+    // ------------------- Live updates -------------------
+    // GET /api/items/stream?status=LOST,FOUND&itemType=Wallet (both optional, comma-separated)
+    // Server-Sent Events: item-created, item-claimed, item-status-changed, item-updated, item-deleted, resync
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamItems(@RequestParam(required = false) String status,
+                                         @RequestParam(required = false) String itemType) {
+        Set<Item.ItemStatus> statuses = EnumSet.noneOf(Item.ItemStatus.class);
+        try {
+            for (String value : commaSeparated(status)) {
+                statuses.add(Item.ItemStatus.valueOf(value.toUpperCase()));
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();     // EventSource cannot read an error body anyway
+        }
+        try {
+            SseEmitter emitter = itemStreamService.subscribe(statuses, commaSeparated(itemType));
+            return ResponseEntity.ok().header("X-Accel-Buffering", "no").body(emitter);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "30").build();
+        }
+    }
+
+    private static Set<String> commaSeparated(String values) {
+        if (values == null || values.isBlank()) {
+            return Set.of();
+        }
+        return Arrays.stream(values.split(","))
+                .map(String::trim)
+                .filter(value -> !value.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
+    // ------------------- Bulk import / export -------------------
+    // POST /api/items/import?userId=<owner of rows without one>, body NDJSON or CSV with a header row.
+    // The body is read as it arrives; the response lists rejected rows by line number.
+    @PostMapping(value = "/import", consumes = { NDJSON, CSV })
+    public ResponseEntity<?> importItems(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                         @RequestParam(required = false) String userId,
+                                         InputStream body) {
+        ItemBulkService.Format format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType(CSV))
+                ? ItemBulkService.Format.CSV
+                : ItemBulkService.Format.NDJSON;
+        try {
+            return ResponseEntity.ok(itemBulkService.importItems(body, format, userId));
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Failed to read import: " + e.getMessage()));
+        }
+    }
+
+    // GET /api/items/export?format=ndjson|csv&status=LOST, written from a cursor as it is read
+    @GetMapping("/export")
+    public ResponseEntity<?> exportItems(@RequestParam(defaultValue = "ndjson") String format,
+                                         @RequestParam(required = false) String status) {
+        ItemBulkService.Format exportFormat;
+        Item.ItemStatus itemStatus = null;
+        try {
+            exportFormat = ItemBulkService.Format.valueOf(format.toUpperCase());
+            if (status != null && !status.isBlank()) {
+                itemStatus = Item.ItemStatus.valueOf(status.toUpperCase());
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Invalid format or status"));
+        }
+        Item.ItemStatus exportStatus = itemStatus;
+        StreamingResponseBody body = out -> itemBulkService.exportItems(exportStatus, exportFormat, out);
+        String extension = exportFormat == ItemBulkService.Format.CSV ? "csv" : "ndjson";
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat == ItemBulkService.Format.CSV ? CSV : NDJSON))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"items." + extension + "\"")
+                .body(body);
+    }
+
+    // ------------------- Search / Filter -------------------
+    // GET /api/items/search?q=black+wallet&itemType=Wallet&status=LOST&location=Library&dateReported=2024-05-01&page=0&size=20
+    // itemName is accepted as an alias of q; dateReported takes a date or an ISO date-time
+    @GetMapping("/search")
+    public ResponseEntity<?> searchItems(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String itemName,
+            @RequestParam(required = false) String itemType,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) String dateReported,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        try {
+            ItemSearchQuery query = searchQuery(q, itemName, itemType, status, location, dateReported);
+            return ResponseEntity.ok(itemService.search(query, page, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    // Every match, unpaged, as NDJSON in the same order as the paged search
+    @GetMapping(value = "/search", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamSearchResults(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String itemName,
+            @RequestParam(required = false) String itemType,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) String dateReported) {
+        ItemSearchQuery query;
+        try {
+            query = searchQuery(q, itemName, itemType, status, location, dateReported);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ndjson(out -> itemService.writeSearchResults(query, out));
+    }
+
+    private static ItemSearchQuery searchQuery(String q, String itemName, String itemType, String status,
+                                               String location, String dateReported) {
+        Item.ItemStatus itemStatus = null;
+        if (status != null && !status.isBlank()) {
+            try {
+                itemStatus = Item.ItemStatus.valueOf(status.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid status: " + status);
+            }
+        }
+        LocalDateTime reportedAfter = null;
+        if (dateReported != null && !dateReported.isBlank()) {
+            try {
+                reportedAfter = dateReported.contains("T")
+                        ? LocalDateTime.parse(dateReported)
+                        : LocalDate.parse(dateReported).atStartOfDay();
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid dateReported: " + dateReported);
+            }
+        }
+        String text = (q != null && !q.isBlank()) ? q : itemName;
+        return new ItemSearchQuery(text, itemType, itemStatus, location, reportedAfter);
     }
 
     @GetMapping("/{id}")
@@ -265,51 +529,163 @@ public class ItemController {
             .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).body(null));
     }
 
+    // ------------------- Matches -------------------
+    // Likely counterparts of a LOST or FOUND item (FOUND items for a LOST one and vice versa), best first
+    @GetMapping("/{id}/matches")
+    public ResponseEntity<?> getMatches(@PathVariable String id, @RequestParam(required = false) Integer limit) {
+        try {
+            return itemService.getMatches(id, limit)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", "Item not found")));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    // Raw JPEG bytes; supports If-None-Match (304) and Range (206) via ImageResponses
+    // size: thumb (96px), card (320px) or detail (1024px, default)
+    @GetMapping("/{id}/image")
+    public ResponseEntity<Resource> getItemImage(@PathVariable String id,
+                                                 @RequestParam(defaultValue = "detail") String size) {
+        Item.ImageRendition rendition;
+        try {
+            rendition = Item.ImageRendition.valueOf(size.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return itemService.getItemImage(id, rendition)
+            .map(image -> ImageResponses.of(image, imageCacheControl))
+            .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
+    // The owner is the caller; a userId in the body is ignored
     @PostMapping("/report")
-    public ResponseEntity<?> reportItem(@RequestBody ReportItemRequest request) {
+    public ResponseEntity<?> reportItem(@RequestBody ReportItemRequest request,
+                                        @AuthenticationPrincipal JwtService.TokenUser caller) {
         try {
-            Optional<User> currentUserOpt = userService.getUserById(request.getUserId());
+            Optional<User> currentUserOpt = userService.getUserById(caller.userId());
             if (currentUserOpt.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(Map.of("message", "User not found"));
             }
 
-            User currentUser = currentUserOpt.get();
+            Item item = newItem(request, currentUserOpt.get());
+
+            // Expect a flat base64 string in DTO; it is decoded and compressed off-thread
+            String imageBase64 = request.getImageBase64();
+            if (imageBase64 != null && !imageBase64.isEmpty()) {
+                Item saved = itemService.saveWithPendingImage(item, () -> Base64.getDecoder().wrap(
+                        new ByteArrayInputStream(imageBase64.getBytes(StandardCharsets.ISO_8859_1))));
+                return reported(saved);
+            }
+
+            return reported(itemService.saveItem(item));
+        } catch (RejectedExecutionException e) {
+            return pipelineBusy(e);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Failed to report item: " + e.getMessage()));
+        }
+    }
 
-            Item item = new Item();
-            item.setUserId(currentUser.getUserId());
-            item.setItemName(request.getItemName());
-            item.setItemType(request.getItemType());
-            item.setDescription(request.getDescription());
-            item.setLocation(request.getLocation());
+    // Multipart variant: form fields plus an "image" file part. The servlet container spools the
+    // part to disk and enforces spring.servlet.multipart.max-* before this method runs (413 otherwise),
+    // so the upload is never held on the heap; the file is handed to the image pipeline as a stream.
+    @PostMapping(value = "/report", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> reportItemMultipart(@ModelAttribute ReportItemRequest request,
+                                                 @RequestParam(value = "image", required = false) MultipartFile image,
+                                                 @AuthenticationPrincipal JwtService.TokenUser caller) {
+        try {
+            if (image != null && !image.isEmpty() && !isSupportedImage(image)) {
+                return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
+                        .body(Map.of("message", "Only JPEG, PNG, GIF or BMP images are accepted"));
+            }
 
-            Item.ItemStatus status = Item.ItemStatus.LOST;
-            if (request.getStatus() != null) {
-                try {
-                    status = Item.ItemStatus.valueOf(request.getStatus().toUpperCase());
-                } catch (IllegalArgumentException ignored) {}
+            Optional<User> currentUserOpt = userService.getUserById(caller.userId());
+            if (currentUserOpt.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("message", "User not found"));
             }
-            item.setStatus(status);
 
-            // Expect a flat base64 string in DTO
-            if (request.getImageBase64() != null && !request.getImageBase64().isEmpty()) {
-                byte[] imageBytes = ItemService.compressImage(request.getImageBase64(), 600, 600);
-                item.setItemImage(imageBytes);
+            Item item = newItem(request, currentUserOpt.get());
+            if (image == null || image.isEmpty()) {
+                return reported(itemService.saveItem(item));
             }
 
-            Item saved = itemRepository.save(item);
-            // The response will include itemImageBase64 via @JsonProperty getter
-            return ResponseEntity.ok(Map.of("message", "Item reported successfully!", "item", saved));
+            // Take the spooled file over from the request; the pipeline deletes it once read
+            Path upload = Files.createTempFile("item-upload-", ".img");
+            try {
+                image.transferTo(upload);
+                return reported(itemService.saveWithPendingImage(item,
+                        () -> Files.newInputStream(upload, StandardOpenOption.DELETE_ON_CLOSE)));
+            } catch (RuntimeException | IOException e) {
+                Files.deleteIfExists(upload);
+                throw e;
+            }
+        } catch (RejectedExecutionException e) {
+            return pipelineBusy(e);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("message", "Failed to report item: " + e.getMessage()));
         }
     }
 
+    private Item newItem(ReportItemRequest request, User currentUser) {
+        Item item = new Item();
+        item.setUserId(currentUser.getUserId());
+        item.setItemName(request.getItemName());
+        item.setItemType(request.getItemType());
+        item.setDescription(request.getDescription());
+        item.setLocation(request.getLocation());
+
+        Item.ItemStatus status = Item.ItemStatus.LOST;
+        if (request.getStatus() != null) {
+            try {
+                status = Item.ItemStatus.valueOf(request.getStatus().toUpperCase());
+            } catch (IllegalArgumentException ignored) {}
+        }
+        item.setStatus(status);
+        return item;
+    }
+
+    // Checks the declared content type, then the file signature, reading only the first bytes
+    private static boolean isSupportedImage(MultipartFile image) throws IOException {
+        if (image.getContentType() == null || !SUPPORTED_IMAGE_TYPES.contains(image.getContentType())) {
+            return false;
+        }
+        try (InputStream in = image.getInputStream()) {
+            byte[] head = in.readNBytes(4);
+            return head.length == 4 && (
+                    (head[0] == (byte) 0xFF && head[1] == (byte) 0xD8)                     // JPEG
+                    || (head[0] == (byte) 0x89 && head[1] == 'P' && head[2] == 'N' && head[3] == 'G')
+                    || (head[0] == 'G' && head[1] == 'I' && head[2] == 'F')
+                    || (head[0] == 'B' && head[1] == 'M'));
+        }
+    }
+
+    private static ResponseEntity<?> reported(Item saved) {
+        if (saved.getImageStatus() == Item.ImageStatus.PENDING) {
+            // imageStatus is PENDING until the pipeline has stored the renditions
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(Map.of("message", "Item reported successfully!", "item", saved));
+        }
+        return ResponseEntity.ok(Map.of("message", "Item reported successfully!", "item", saved));
+    }
+
+    private static ResponseEntity<?> pipelineBusy(RejectedExecutionException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(Map.of("message", e.getMessage()));
+    }
+
+    // PUT /api/items/{id}/claim, claimed by the caller; 409 when someone else claimed it first
     @PutMapping("/{id}/claim")
-    public ResponseEntity<String> claimItem(@PathVariable String id) {
-        boolean success = itemService.claimItem(id);
-        return success
-                ? ResponseEntity.ok("Item claimed successfully!")
-                : ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Item not found or already claimed.");
+    public ResponseEntity<String> claimItem(@PathVariable String id,
+                                            @AuthenticationPrincipal JwtService.TokenUser caller) {
+        return switch (itemService.claimItem(id, caller.userId())) {
+            case CLAIMED -> ResponseEntity.ok("Item claimed successfully!");
+            case ALREADY_CLAIMED -> ResponseEntity.status(HttpStatus.CONFLICT).body("Item has already been claimed.");
+            case NOT_FOUND -> ResponseEntity.status(HttpStatus.NOT_FOUND).body("Item not found.");
+        };
     }
 }
\ No newline at end of file
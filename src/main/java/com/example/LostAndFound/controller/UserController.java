@@ -2,16 +2,21 @@
 package com.example.LostAndFound.controller;
 
 import java.io.IOException;
-import java.util.Base64;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -21,11 +26,17 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.example.LostAndFound.dto.AuthResponse;
 import com.example.LostAndFound.dto.DashboardResponse;
 import com.example.LostAndFound.dto.LoginRequest;
 import com.example.LostAndFound.dto.PasswordChangeRequest;
+import com.example.LostAndFound.dto.RefreshTokenRequest;
+import com.example.LostAndFound.dto.SignupRequest;
+import com.example.LostAndFound.dto.UserPatchRequest;
 import com.example.LostAndFound.entity.User;
 import com.example.LostAndFound.service.ItemService;
+import com.example.LostAndFound.service.JwtService;
+import com.example.LostAndFound.service.RefreshTokenService;
 import com.example.LostAndFound.service.UserService;
 
 import jakarta.validation.ConstraintViolationException;
@@ -37,15 +48,21 @@ public class UserController {
 
     private final UserService userService;
     private final ItemService itemService;
-    public UserController(UserService userService, ItemService itemService) {
+    private final RefreshTokenService refreshTokenService;
+    public UserController(UserService userService, ItemService itemService, RefreshTokenService refreshTokenService) {
         this.userService = userService;
         this.itemService = itemService;
+        this.refreshTokenService = refreshTokenService;
     }
     // private UserRepository userRepository;
 
     
     @GetMapping("/{userId}/dashboard")
-public ResponseEntity<DashboardResponse> getUserDashboard(@PathVariable String userId) {
+public ResponseEntity<DashboardResponse> getUserDashboard(@PathVariable String userId,
+                                                          @AuthenticationPrincipal JwtService.TokenUser caller) {
+    if (!isAdmin(caller) && !userId.equals(caller.userId())) {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+    }
     DashboardResponse dashboardData = itemService.getDashboardData(userId);
     return ResponseEntity.ok(dashboardData);
 }
@@ -53,7 +70,7 @@ public ResponseEntity<DashboardResponse> getUserDashboard(@PathVariable String u
 
     // Signup Endpoint
     @PostMapping("/signup")
-    public ResponseEntity<Map<String, String>> registerUser(@RequestBody User user) {  
+    public ResponseEntity<Map<String, String>> registerUser(@RequestBody SignupRequest user) {
         // Null Check - No empty values allowed
         if (user.getFirstName() == null || user.getFirstName().trim().isEmpty() ||
             user.getLastName() == null || user.getLastName().trim().isEmpty() ||
@@ -72,10 +89,12 @@ public ResponseEntity<DashboardResponse> getUserDashboard(@PathVariable String u
             }
         } catch (ConstraintViolationException ex) {
             return handleConstraintViolation(ex);
+        } catch (RejectedExecutionException e) {
+            return hashingBusy(e);
         }
     }
 
-    // Login Endpoint
+    // Login Endpoint: an access token, a refresh token and the user (no password, no picture)
     @PostMapping("/login")
     public ResponseEntity<?> loginUser(@RequestBody LoginRequest loginRequest) {
         if (loginRequest.getEmail() == null || loginRequest.getEmail().trim().isEmpty() ||
@@ -83,16 +102,36 @@ public ResponseEntity<DashboardResponse> getUserDashboard(@PathVariable String u
             return ResponseEntity.badRequest().body(Collections.singletonMap("error", "Email and password are required"));
         }
 
-        User user = userService.validateUser(loginRequest.getEmail(), loginRequest.getPassword());
+        User user;
+        try {
+            user = userService.validateUser(loginRequest.getEmail(), loginRequest.getPassword());
+        } catch (RejectedExecutionException e) {
+            return hashingBusy(e);
+        }
 
         if (user != null) {
-            return ResponseEntity.ok(user);
+            return ResponseEntity.ok(refreshTokenService.issue(user));
         } else {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Collections.singletonMap("message", "Invalid email or password"));
         }
     }
 
+    // New access token for a refresh token, which is used up; its successor comes with the response
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@RequestBody RefreshTokenRequest request) {
+        return refreshTokenService.rotate(request.getRefreshToken())
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+    }
+
+    // Revokes the session of this refresh token; access tokens already out run until they expire
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestBody RefreshTokenRequest request) {
+        refreshTokenService.revoke(request.getRefreshToken());
+        return ResponseEntity.noContent().build();
+    }
+
     // Get User Profile
     @GetMapping("/{username}")
     public ResponseEntity<?> getUserProfile(@PathVariable String username) {
@@ -107,7 +146,11 @@ public ResponseEntity<DashboardResponse> getUserDashboard(@PathVariable String u
 
     // Update User
     @PutMapping("/{username}")
-    public ResponseEntity<Map<String, String>> updateUser(@PathVariable String username, @RequestBody User updatedUser) {
+    public ResponseEntity<Map<String, String>> updateUser(@PathVariable String username, @RequestBody User updatedUser,
+                                                          @AuthenticationPrincipal JwtService.TokenUser caller) {
+        if (!mayChange(caller, username)) {
+            return forbidden();
+        }
         if (updatedUser.getFirstName() == null || updatedUser.getFirstName().trim().isEmpty() ||
             updatedUser.getLastName() == null || updatedUser.getLastName().trim().isEmpty() ||
             updatedUser.getUsername() == null || updatedUser.getUsername().trim().isEmpty() ||
@@ -119,20 +162,59 @@ public ResponseEntity<DashboardResponse> getUserDashboard(@PathVariable String u
             //System.out.println("Received PUT request from frontend:");
             //System.out.println("Username (from URL): " + username);
             //System.out.println("Payload: " + updatedUser.toString());
-            String result = userService.updateUser(username, updatedUser);
-
-            if (result.equals("User not found") || 
-                result.equals("Email is already taken") || 
-                result.equals("Username is already taken")) {
-                return ResponseEntity.badRequest().body(Collections.singletonMap("error", result));
-            }
-
-            return ResponseEntity.ok(Collections.singletonMap("message", result));
+            return updateResponse(userService.updateUser(username, updatedUser));
         } catch (ConstraintViolationException ex) {
             return handleConstraintViolation(ex);
         }
     }
 
+    // Partial update: only the fields present in the body are $set
+    @PatchMapping("/{username}")
+    public ResponseEntity<Map<String, String>> patchUser(@PathVariable String username, @RequestBody UserPatchRequest patch,
+                                                         @AuthenticationPrincipal JwtService.TokenUser caller) {
+        if (!mayChange(caller, username)) {
+            return forbidden();
+        }
+        if (isBlankIfPresent(patch.getFirstName()) || isBlankIfPresent(patch.getLastName()) ||
+            isBlankIfPresent(patch.getUsername()) || isBlankIfPresent(patch.getEmail())) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("error", "Fields cannot be set to blank"));
+        }
+        return updateResponse(userService.patchUser(username, patch));
+    }
+
+    // The account's own user or an admin. Compared by userId: the username in an access token
+    // is whatever it was at issue time, and a renamed-away username can be taken by someone else.
+    private boolean mayChange(JwtService.TokenUser caller, String username) {
+        return isAdmin(caller) || userService.getUserByUsername(username)
+                .map(user -> user.getUserId().equals(caller.userId()))
+                .orElse(false);
+    }
+
+    private static boolean isAdmin(JwtService.TokenUser caller) {
+        return caller.userType() == User.UserType.Admin;
+    }
+
+    private static ResponseEntity<Map<String, String>> forbidden() {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(Collections.singletonMap("error", "Not allowed to change this account"));
+    }
+
+    private static boolean isBlankIfPresent(String value) {
+        return value != null && value.trim().isEmpty();
+    }
+
+    private static ResponseEntity<Map<String, String>> updateResponse(String result) {
+        return switch (result) {
+            case "User not found" -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Collections.singletonMap("error", result));
+            case "Email is already taken", "Username is already taken" -> ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Collections.singletonMap("error", result));
+            case "Failed to store profile picture", "Profile picture is not valid base64" -> ResponseEntity.badRequest()
+                    .body(Collections.singletonMap("error", result));
+            default -> ResponseEntity.ok(Collections.singletonMap("message", result));
+        };
+    }
+
     // Handles Constraint Violations (e.g., Email format, name length)
     private ResponseEntity<Map<String, String>> handleConstraintViolation(ConstraintViolationException ex) {
         String errorMessage = ex.getConstraintViolations()
@@ -145,10 +227,16 @@ public ResponseEntity<DashboardResponse> getUserDashboard(@PathVariable String u
     }
 
     @PutMapping("/{username}/change-password")
-    public ResponseEntity<?> changePassword(@PathVariable String username, @RequestBody PasswordChangeRequest request) {
+    public ResponseEntity<?> changePassword(@PathVariable String username, @RequestBody PasswordChangeRequest request,
+                                            @AuthenticationPrincipal JwtService.TokenUser caller) {
+        if (!mayChange(caller, username)) {
+            return forbidden();
+        }
         try {
             userService.changePassword(username, request.getCurrentPassword(), request.getNewPassword());
             return ResponseEntity.ok(Map.of("message", "Password updated successfully"));
+        } catch (RejectedExecutionException e) {
+            return hashingBusy(e);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
         } catch (RuntimeException e) {
@@ -156,6 +244,13 @@ public ResponseEntity<DashboardResponse> getUserDashboard(@PathVariable String u
         }
     }
 
+    // Every password hasher busy and its queue full (see PasswordHashingService)
+    private static ResponseEntity<Map<String, String>> hashingBusy(RejectedExecutionException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Collections.singletonMap("error", e.getMessage()));
+    }
+
     @GetMapping
     public List<User> getUsers() {
         return userService.getAllUsers();
@@ -167,21 +262,30 @@ public ResponseEntity<DashboardResponse> getUserDashboard(@PathVariable String u
         return ResponseEntity.ok(count);
     }
 
+    // Raw picture bytes; the browser revalidates each time and gets 304 while the ETag matches
+    @GetMapping("/{username}/profile-picture")
+    public ResponseEntity<Resource> getProfilePicture(@PathVariable String username) {
+        return userService.getProfilePicture(username)
+                .map(image -> ImageResponses.of(image, CacheControl.noCache()))
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
     @PostMapping("/update-profile-picture")
     public ResponseEntity<String> updateProfilePicture(
             @RequestParam("file") MultipartFile file, 
-            @RequestParam("username") String username) {
+            @RequestParam("username") String username,
+            @AuthenticationPrincipal JwtService.TokenUser caller) {
 
+        if (!mayChange(caller, username)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Not allowed to change this account");
+        }
         if (file.isEmpty()) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body("No file selected");
         }
 
         try {
-            byte[] bytes = file.getBytes();
-            String encodedImage = Base64.getEncoder().encodeToString(bytes);
-
-            boolean isUpdated = userService.updateProfilePicture(username, encodedImage);
+            boolean isUpdated = userService.updateProfilePicture(username, file.getInputStream(), file.getContentType());
             if (isUpdated) {
                 return ResponseEntity.ok("Profile picture updated successfully");
             } else {
@@ -0,0 +1,17 @@
+package com.example.LostAndFound.dto;
+
+import com.example.LostAndFound.entity.User;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Tokens from login and refresh. The access token goes in {@code Authorization: Bearer ...}
+ * for {@code expiresIn} seconds; the refresh token is good for one POST /api/users/refresh.
+ * user is only set on login.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AuthResponse(String accessToken, String refreshToken, String tokenType, long expiresIn, User user) {
+
+    public static AuthResponse bearer(String accessToken, String refreshToken, long expiresIn, User user) {
+        return new AuthResponse(accessToken, refreshToken, "Bearer", expiresIn, user);
+    }
+}
@@ -7,6 +7,7 @@ public class DashboardResponse {
     private long lostCount;        // number of lost items by this user
     private long foundCount;       // number of found items by this user
     private long claimedCount;     // number of claimed items by this user
+    private long returnedCount;    // number of returned items by this user
     private List<ItemDto> recentItems;
 
     // Getters & setters
@@ -34,6 +35,12 @@ public class DashboardResponse {
     public void setClaimedCount(long claimedCount) {
         this.claimedCount = claimedCount;
     }
+    public long getReturnedCount() {
+        return returnedCount;
+    }
+    public void setReturnedCount(long returnedCount) {
+        this.returnedCount = returnedCount;
+    }
     public List<ItemDto> getRecentItems() {
         return recentItems;
     }
@@ -0,0 +1,40 @@
+package com.example.LostAndFound.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import org.bson.types.ObjectId;
+
+/**
+ * Keyset position in the (dateReported desc, _id desc) ordering of items.
+ * Clients only ever see the opaque token produced by {@link #encode()}.
+ * dateReported is null for items reported without one (legacy or imported rows); Mongo sorts
+ * those last in descending order, so null stands for the minimum.
+ */
+public record ItemCursor(LocalDateTime dateReported, String id) {
+
+    private static final char SEPARATOR = '|';
+
+    public String encode() {
+        String raw = (dateReported == null ? "" : dateReported.toString()) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ItemCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int split = raw.lastIndexOf(SEPARATOR);
+            String id = raw.substring(split + 1);
+            if (split < 0 || !ObjectId.isValid(id)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            String date = raw.substring(0, split);
+            return new ItemCursor(date.isEmpty() ? null : LocalDateTime.parse(date), id);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
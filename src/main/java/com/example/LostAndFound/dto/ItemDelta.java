@@ -0,0 +1,9 @@
+package com.example.LostAndFound.dto;
+
+import com.example.LostAndFound.entity.Item;
+
+/**
+ * One change pushed on /api/items/stream. {@code item} is null for deletions;
+ * {@code previousStatus} is only set on status changes, and only when it is known.
+ */
+public record ItemDelta(String id, ItemSummary item, Item.ItemStatus previousStatus) {}
@@ -0,0 +1,80 @@
+package com.example.LostAndFound.dto;
+
+import java.time.LocalDateTime;
+
+import com.example.LostAndFound.entity.Item;
+
+// One candidate from GET /api/items/{id}/matches
+public class ItemMatch {
+    private String id;
+    private String userId;
+    private String itemName;
+    private String itemType;
+    private String location;
+    private Item.ItemStatus status;
+    private LocalDateTime dateReported;
+    private double score;   // higher is more likely the same item; only comparable within one response
+
+    public ItemMatch() {}
+
+    public ItemMatch(String id, String userId, String itemName, String itemType, String location,
+                     Item.ItemStatus status, LocalDateTime dateReported, double score) {
+        this.id = id;
+        this.userId = userId;
+        this.itemName = itemName;
+        this.itemType = itemType;
+        this.location = location;
+        this.status = status;
+        this.dateReported = dateReported;
+        this.score = score;
+    }
+
+    public String getId() {
+        return id;
+    }
+    public void setId(String id) {
+        this.id = id;
+    }
+    public String getUserId() {
+        return userId;
+    }
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+    public String getItemName() {
+        return itemName;
+    }
+    public void setItemName(String itemName) {
+        this.itemName = itemName;
+    }
+    public String getItemType() {
+        return itemType;
+    }
+    public void setItemType(String itemType) {
+        this.itemType = itemType;
+    }
+    public String getLocation() {
+        return location;
+    }
+    public void setLocation(String location) {
+        this.location = location;
+    }
+    public Item.ItemStatus getStatus() {
+        return status;
+    }
+    public void setStatus(Item.ItemStatus status) {
+        this.status = status;
+    }
+    public LocalDateTime getDateReported() {
+        return dateReported;
+    }
+    public void setDateReported(LocalDateTime dateReported) {
+        this.dateReported = dateReported;
+    }
+    public double getScore() {
+        return score;
+    }
+    public void setScore(double score) {
+        this.score = score;
+    }
+}
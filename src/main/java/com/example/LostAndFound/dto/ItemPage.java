@@ -0,0 +1,36 @@
+package com.example.LostAndFound.dto;
+
+import java.util.List;
+
+public class ItemPage {
+    private List<ItemSummary> items;
+    private String nextCursor;   // null when there are no more items
+    private boolean hasMore;
+
+    public ItemPage() {}
+
+    public ItemPage(List<ItemSummary> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = nextCursor != null;
+    }
+
+    public List<ItemSummary> getItems() {
+        return items;
+    }
+    public void setItems(List<ItemSummary> items) {
+        this.items = items;
+    }
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+    public boolean isHasMore() {
+        return hasMore;
+    }
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
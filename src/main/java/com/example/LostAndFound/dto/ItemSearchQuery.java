@@ -0,0 +1,21 @@
+package com.example.LostAndFound.dto;
+
+import java.time.LocalDateTime;
+
+import com.example.LostAndFound.entity.Item;
+
+/**
+ * Filters for GET /api/items/search; every field is optional.
+ * text goes through the items text index, location matches as a case-insensitive prefix,
+ * reportedAfter is exclusive.
+ */
+public record ItemSearchQuery(String text,
+                              String itemType,
+                              Item.ItemStatus status,
+                              String location,
+                              LocalDateTime reportedAfter) {
+
+    public boolean hasText() {
+        return text != null && !text.isBlank();
+    }
+}
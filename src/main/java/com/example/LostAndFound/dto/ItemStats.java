@@ -0,0 +1,50 @@
+package com.example.LostAndFound.dto;
+
+public class ItemStats {
+    private long lostCount;
+    private long foundCount;
+    private long claimedCount;
+    private long returnedCount;
+    private long totalCount;
+
+    public ItemStats() {}
+
+    public ItemStats(long lostCount, long foundCount, long claimedCount, long returnedCount) {
+        this.lostCount = lostCount;
+        this.foundCount = foundCount;
+        this.claimedCount = claimedCount;
+        this.returnedCount = returnedCount;
+        this.totalCount = lostCount + foundCount + claimedCount + returnedCount;
+    }
+
+    public long getLostCount() {
+        return lostCount;
+    }
+    public void setLostCount(long lostCount) {
+        this.lostCount = lostCount;
+    }
+    public long getFoundCount() {
+        return foundCount;
+    }
+    public void setFoundCount(long foundCount) {
+        this.foundCount = foundCount;
+    }
+    public long getClaimedCount() {
+        return claimedCount;
+    }
+    public void setClaimedCount(long claimedCount) {
+        this.claimedCount = claimedCount;
+    }
+    public long getReturnedCount() {
+        return returnedCount;
+    }
+    public void setReturnedCount(long returnedCount) {
+        this.returnedCount = returnedCount;
+    }
+    public long getTotalCount() {
+        return totalCount;
+    }
+    public void setTotalCount(long totalCount) {
+        this.totalCount = totalCount;
+    }
+}
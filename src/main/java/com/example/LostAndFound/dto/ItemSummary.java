@@ -0,0 +1,107 @@
+package com.example.LostAndFound.dto;
+
+import java.time.LocalDateTime;
+
+import com.example.LostAndFound.entity.Item;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * List view of an item. Read through a projection that never loads itemImage;
+ * clients fetch the picture separately from {@link #getThumbnailUrl()} or {@link #getCardUrl()}.
+ */
+public class ItemSummary {
+    private String id;
+    private String userId;
+    private String itemName;
+    private String itemType;
+    private String description;
+    private String location;
+    private Item.ItemStatus status;
+    private LocalDateTime dateReported;
+    private Item.ImageStatus imageStatus;   // PENDING while the upload is still being processed
+    @JsonIgnore
+    private boolean hasImage;   // computed by the projection query
+    private Double score;       // text search relevance, null outside of text search
+
+    public ItemSummary() {}
+
+    public String getThumbnailUrl() {
+        return imageUrl(Item.ImageRendition.THUMB);
+    }
+
+    public String getCardUrl() {
+        return imageUrl(Item.ImageRendition.CARD);
+    }
+
+    private String imageUrl(Item.ImageRendition rendition) {
+        return hasImage ? "/api/items/" + id + "/image?size=" + rendition.key() : null;
+    }
+
+    public String getId() {
+        return id;
+    }
+    public void setId(String id) {
+        this.id = id;
+    }
+    public String getUserId() {
+        return userId;
+    }
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+    public String getItemName() {
+        return itemName;
+    }
+    public void setItemName(String itemName) {
+        this.itemName = itemName;
+    }
+    public String getItemType() {
+        return itemType;
+    }
+    public void setItemType(String itemType) {
+        this.itemType = itemType;
+    }
+    public String getDescription() {
+        return description;
+    }
+    public void setDescription(String description) {
+        this.description = description;
+    }
+    public String getLocation() {
+        return location;
+    }
+    public void setLocation(String location) {
+        this.location = location;
+    }
+    public Item.ItemStatus getStatus() {
+        return status;
+    }
+    public void setStatus(Item.ItemStatus status) {
+        this.status = status;
+    }
+    public LocalDateTime getDateReported() {
+        return dateReported;
+    }
+    public void setDateReported(LocalDateTime dateReported) {
+        this.dateReported = dateReported;
+    }
+    public Item.ImageStatus getImageStatus() {
+        return imageStatus;
+    }
+    public void setImageStatus(Item.ImageStatus imageStatus) {
+        this.imageStatus = imageStatus;
+    }
+    @JsonIgnore
+    public boolean isHasImage() {
+        return hasImage;
+    }
+    public void setHasImage(boolean hasImage) {
+        this.hasImage = hasImage;
+    }
+    public Double getScore() {
+        return score;
+    }
+    public void setScore(Double score) {
+        this.score = score;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.LostAndFound.dto;
+
+import java.util.List;
+
+public class SearchResponse {
+    private List<ItemSummary> items;   // best match first when searching by text, newest first otherwise
+    private int page;
+    private int size;
+    private boolean hasMore;
+
+    public SearchResponse() {}
+
+    public SearchResponse(List<ItemSummary> items, int page, int size, boolean hasMore) {
+        this.items = items;
+        this.page = page;
+        this.size = size;
+        this.hasMore = hasMore;
+    }
+
+    public List<ItemSummary> getItems() {
+        return items;
+    }
+    public void setItems(List<ItemSummary> items) {
+        this.items = items;
+    }
+    public int getPage() {
+        return page;
+    }
+    public void setPage(int page) {
+        this.page = page;
+    }
+    public int getSize() {
+        return size;
+    }
+    public void setSize(int size) {
+        this.size = size;
+    }
+    public boolean isHasMore() {
+        return hasMore;
+    }
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.LostAndFound.dto;
+
+import java.time.LocalDate;
+
+import com.example.LostAndFound.entity.User;
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+// Signup form fields only: userId, userType and the picture are never taken from the client
+public class SignupRequest {
+    private String firstName;
+    private String lastName;
+    private String username;
+    private String email;
+    private String password;
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd")
+    private LocalDate dateOfBirth;
+    private User.Gender gender;
+
+    public SignupRequest() {}
+
+    public String getFirstName() {
+        return firstName;
+    }
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+    public String getLastName() {
+        return lastName;
+    }
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+    public String getUsername() {
+        return username;
+    }
+    public void setUsername(String username) {
+        this.username = username;
+    }
+    public String getEmail() {
+        return email;
+    }
+    public void setEmail(String email) {
+        this.email = email;
+    }
+    public String getPassword() {
+        return password;
+    }
+    public void setPassword(String password) {
+        this.password = password;
+    }
+    public LocalDate getDateOfBirth() {
+        return dateOfBirth;
+    }
+    public void setDateOfBirth(LocalDate dateOfBirth) {
+        this.dateOfBirth = dateOfBirth;
+    }
+    public User.Gender getGender() {
+        return gender;
+    }
+    public void setGender(User.Gender gender) {
+        this.gender = gender;
+    }
+}
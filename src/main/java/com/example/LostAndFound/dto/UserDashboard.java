@@ -0,0 +1,18 @@
+package com.example.LostAndFound.dto;
+
+import java.util.List;
+
+import com.example.LostAndFound.entity.Item;
+
+/**
+ * Raw result of the dashboard aggregation: the user's name, item counts grouped by
+ * status (statuses without items are absent) and the most recent items.
+ */
+public record UserDashboard(String firstName,
+                            String lastName,
+                            List<StatusCount> statusCounts,
+                            List<ItemSummary> recentItems) {
+
+    // id is the grouped status, read from the $group _id
+    public record StatusCount(Item.ItemStatus id, long count) {}
+}
@@ -0,0 +1,77 @@
+package com.example.LostAndFound.dto;
+
+import java.time.LocalDate;
+
+import com.example.LostAndFound.entity.User;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// Body of PATCH /api/users/{username}: only the fields that are set (non-null) are changed
+public class UserPatchRequest {
+    private String firstName;
+    private String lastName;
+    private String username;
+    private String email;
+    @JsonProperty("dateOfBirth")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd")
+    private LocalDate dateOfBirth;
+    private User.Gender gender;
+    private String profilePicture;  // base64, stored in the ImageStore
+
+    public UserPatchRequest() {}
+
+    // The fields PUT /api/users/{username} replaces; the username itself stays
+    public static UserPatchRequest of(User user) {
+        UserPatchRequest patch = new UserPatchRequest();
+        patch.setFirstName(user.getFirstName());
+        patch.setLastName(user.getLastName());
+        patch.setEmail(user.getEmail());
+        patch.setDateOfBirth(user.getDate_of_birth());
+        patch.setGender(user.getGender());
+        patch.setProfilePicture(user.getProfilePicture());
+        return patch;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+    public String getLastName() {
+        return lastName;
+    }
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+    public String getUsername() {
+        return username;
+    }
+    public void setUsername(String username) {
+        this.username = username;
+    }
+    public String getEmail() {
+        return email;
+    }
+    public void setEmail(String email) {
+        this.email = email;
+    }
+    public LocalDate getDateOfBirth() {
+        return dateOfBirth;
+    }
+    public void setDateOfBirth(LocalDate dateOfBirth) {
+        this.dateOfBirth = dateOfBirth;
+    }
+    public User.Gender getGender() {
+        return gender;
+    }
+    public void setGender(User.Gender gender) {
+        this.gender = gender;
+    }
+    public String getProfilePicture() {
+        return profilePicture;
+    }
+    public void setProfilePicture(String profilePicture) {
+        this.profilePicture = profilePicture;
+    }
+}
@@ -42,8 +42,13 @@ package com.example.LostAndFound.entity;
 
 import java.time.LocalDateTime;
 import java.util.Base64;
+import java.util.Map;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -54,7 +59,20 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+// Created by MongoIndexInitializer at startup (auto-index-creation stays off)
 @Document(collection = "items")
+@CompoundIndexes({
+    @CompoundIndex(name = "userId_status", def = "{ 'userId': 1, 'status': 1 }"),
+    @CompoundIndex(name = "userId_dateReported", def = "{ 'userId': 1, 'dateReported': -1 }"),
+    // Keyset pages (ItemRepositoryImpl.NEWEST_FIRST) read in index order, by status or across all items
+    @CompoundIndex(name = "status_dateReported_id", def = "{ 'status': 1, 'dateReported': -1, '_id': -1 }"),
+    @CompoundIndex(name = "dateReported_id", def = "{ 'dateReported': -1, '_id': -1 }"),
+    @CompoundIndex(name = "itemType_status_dateReported", def = "{ 'itemType': 1, 'status': 1, 'dateReported': -1 }"),
+    @CompoundIndex(name = "location_dateReported", def = "{ 'location': 1, 'dateReported': -1 }"),
+    // Case-insensitive name matching for found-item notifications; queries must use the same collation
+    @CompoundIndex(name = "status_itemName_ci", def = "{ 'status': 1, 'itemName': 1 }",
+                   collation = "{ 'locale': 'en', 'strength': 2 }")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -65,19 +83,52 @@ public class Item {
     private String id;
 
     private String userId;
+    @TextIndexed(weight = 3)    // a name hit ranks above a description hit
     private String itemName;
     private String itemType;
+    @TextIndexed
     private String description;
     private String location;
     private String userEmail;   // who reported
     private String imageUrl; 
     private ItemStatus status = ItemStatus.LOST;
     private LocalDateTime dateReported = LocalDateTime.now();
+    private String claimedBy;   // userId of the claimant, when known
+    private LocalDateTime claimedAt;
 
     @JsonIgnore // ✅ Tell the serializer to ignore this field
-    private byte[] itemImage;
+    private byte[] itemImage;   // legacy embedded image, moved out by ImageMigrationService
+
+    private String imageId;     // ImageStore reference (the detail rendition for new uploads)
+    private Map<String, String> imageRenditions; // rendition key -> ImageStore reference
+    private ImageStatus imageStatus; // null when the item was reported without an image
+
+    // Set in the same write as a FOUND report; cleared once its notifications are in the outbox
+    @JsonIgnore
+    @Indexed(sparse = true)
+    private Boolean notificationsPending;
 
     public enum ItemStatus { LOST, FOUND, CLAIMED, RETURNED }
+    public enum ImageStatus { PENDING, READY, FAILED }
+
+    // Longest side in pixels of each stored rendition
+    public enum ImageRendition {
+        THUMB(96), CARD(320), DETAIL(1024);
+
+        private final int maxSize;
+
+        ImageRendition(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public String key() {
+            return name().toLowerCase();
+        }
+    }
 
     @JsonProperty("itemImageBase64") // ✅ Tell the serializer to use this method
     public String getItemImageBase64() {
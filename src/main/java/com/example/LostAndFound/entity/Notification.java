@@ -0,0 +1,47 @@
+package com.example.LostAndFound.entity;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Outbox entry: one email to an owner of LOST items that match a FOUND report.
+ * Written by NotificationDispatcher from items flagged notificationsPending, then sent,
+ * retried with backoff, and finally parked as DEAD when it keeps failing.
+ */
+@Document(collection = "notifications")
+@CompoundIndex(name = "status_nextAttemptAt", def = "{ 'status': 1, 'nextAttemptAt': 1 }")
+@Getter
+@Setter
+@NoArgsConstructor
+public class Notification {
+
+    @Id
+    private String id;          // foundItemId:recipientUserId, so re-creating the same match is a no-op
+
+    private String foundItemId;
+    private String lostItemId;      // the owner's first matching LOST item
+    private String recipientUserId;
+    private String recipientEmail;
+    private String subject;
+    private String body;
+
+    private NotificationStatus status = NotificationStatus.PENDING;
+    private int attempts;
+    private LocalDateTime nextAttemptAt;    // due time while PENDING, lease expiry while SENDING
+    private String lastError;
+    private LocalDateTime createdAt = LocalDateTime.now();
+    private LocalDateTime sentAt;
+
+    public enum NotificationStatus { PENDING, SENDING, SENT, DEAD }
+
+    public static String idFor(String foundItemId, String recipientUserId) {
+        return foundItemId + ":" + recipientUserId;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.LostAndFound.entity;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One refresh token. Each refresh uses one up and issues the next in the same family; a used
+ * token coming back means it was copied, and the whole family (that login) is revoked.
+ * Only a hash of the token is stored.
+ */
+@Document(collection = "refresh_tokens")
+@Getter
+@Setter
+@NoArgsConstructor
+public class RefreshToken {
+
+    @Id
+    private String id;          // SHA-256 of the token, base64url
+
+    @Indexed                    // revoking a family
+    private String familyId;
+
+    private String userId;
+    private boolean used;
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Indexed(expireAfter = "0s")    // Mongo drops it once expired
+    private LocalDateTime expiresAt;
+}
@@ -4,6 +4,7 @@ import java.time.LocalDate;
 import java.util.Date;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
@@ -38,15 +39,18 @@ public class User {
 
     @NotBlank
     @Size(max = 50)
+    @Indexed(unique = true)     // findByUsername on every login
     private String username;
 
     @NotBlank
     @Email
     @Size(max = 100)
+    @Indexed(unique = true)     // findByEmail on every signup
     private String email;
 
     @NotBlank
     @Size(min = 6)
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)     // read from signup, never written out
     private String password;
 
     @Past
@@ -58,7 +62,9 @@ public class User {
 
     private Date createdAt = new Date(); // default to now
 
-    private String profilePicture; // Base64 encoded string
+    private String profilePicture; // Base64 encoded string (legacy, moved out by ImageMigrationService)
+
+    private String profilePictureId; // ImageStore reference
 
     private UserType userType = UserType.User;
 
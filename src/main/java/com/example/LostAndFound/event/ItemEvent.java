@@ -0,0 +1,41 @@
+package com.example.LostAndFound.event;
+
+import com.example.LostAndFound.entity.Item;
+
+/**
+ * Something happened to an item, on this instance or (with change streams enabled) on any other.
+ * Listen with {@code @EventListener}; items never carry their image bytes.
+ */
+public sealed interface ItemEvent {
+
+    String itemId();
+
+    record Created(Item item) implements ItemEvent {
+        public String itemId() {
+            return item.getId();
+        }
+    }
+
+    // An update that set the status field; previousStatus is null when it is not known
+    record StatusChanged(Item item, Item.ItemStatus previousStatus) implements ItemEvent {
+        public String itemId() {
+            return item.getId();
+        }
+    }
+
+    // Any other update, or a full replace (save) where the previous state is unknown
+    record Updated(Item item) implements ItemEvent {
+        public String itemId() {
+            return item.getId();
+        }
+    }
+
+    record Deleted(String itemId) implements ItemEvent {}
+
+    // Events were missed (e.g. the stream's resume point expired); reload any derived state
+    record Resync() implements ItemEvent {
+        public String itemId() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.LostAndFound.event;
+
+/**
+ * A user document changed or was removed. Published by the change stream listener only,
+ * so it reflects writes from every instance.
+ */
+public sealed interface UserEvent {
+
+    String userId();
+
+    record Changed(String userId) implements UserEvent {}
+
+    record Deleted(String userId) implements UserEvent {}
+
+    // Events were missed; drop anything cached about users
+    record Resync() implements UserEvent {
+        public String userId() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.LostAndFound.repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "app.images.store", havingValue = "filesystem")
+public class FileSystemImageStore implements ImageStore {
+
+    private final Path root;
+
+    public FileSystemImageStore(@Value("${app.images.filesystem.root:./data/images}") String root) throws IOException {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+        Files.createDirectories(this.root);
+    }
+
+    @Override
+    public String save(InputStream content, String contentType) throws IOException {
+        // The extension records the content type, so no metadata file is needed
+        String reference = UUID.randomUUID() + ("image/png".equals(contentType) ? ".png" : ".jpg");
+        Files.copy(content, root.resolve(reference));
+        return reference;
+    }
+
+    @Override
+    public Optional<StoredImage> load(String reference) {
+        Path path = resolve(reference);
+        if (path == null || !Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        String contentType = reference.endsWith(".png") ? "image/png" : "image/jpeg";
+        return Optional.of(new StoredImage(reference, contentType, new FileSystemResource(path)));
+    }
+
+    @Override
+    public void delete(String reference) {
+        Path path = resolve(reference);
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Rejects references that would escape the image directory
+    private Path resolve(String reference) {
+        Path path = root.resolve(reference).normalize();
+        return path.getParent() != null && path.getParent().equals(root) ? path : null;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.LostAndFound.repository;
+
+import java.io.InputStream;
+import java.util.Optional;
+
+import org.bson.types.ObjectId;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.gridfs.GridFsResource;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.client.gridfs.model.GridFSFile;
+
+@Component
+@ConditionalOnProperty(name = "app.images.store", havingValue = "gridfs", matchIfMissing = true)
+public class GridFsImageStore implements ImageStore {
+
+    private static final String FILENAME = "image";
+
+    private final GridFsTemplate gridFsTemplate;
+
+    public GridFsImageStore(GridFsTemplate gridFsTemplate) {
+        this.gridFsTemplate = gridFsTemplate;
+    }
+
+    @Override
+    public String save(InputStream content, String contentType) {
+        // GridFS splits the stream into 255 kB chunks as it reads
+        return gridFsTemplate.store(content, FILENAME, contentType).toHexString();
+    }
+
+    @Override
+    public Optional<StoredImage> load(String reference) {
+        if (!ObjectId.isValid(reference)) {
+            return Optional.empty();
+        }
+        GridFSFile file = gridFsTemplate.findOne(byId(reference));
+        if (file == null) {
+            return Optional.empty();
+        }
+        // Chunks are fetched lazily while the response is written
+        GridFsResource resource = gridFsTemplate.getResource(file);
+        return Optional.of(new StoredImage(reference, resource.getContentType(), resource));
+    }
+
+    @Override
+    public void delete(String reference) {
+        if (ObjectId.isValid(reference)) {
+            gridFsTemplate.delete(byId(reference));
+        }
+    }
+
+    private static Query byId(String reference) {
+        return Query.query(Criteria.where("_id").is(new ObjectId(reference)));
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.LostAndFound.repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+/**
+ * Blob storage for item images and profile pictures. Documents keep only the
+ * reference returned by {@link #save}; the bytes live outside the collections.
+ * The implementation is chosen with {@code app.images.store} (gridfs or filesystem).
+ */
+public interface ImageStore {
+
+    // Streams the content into storage and returns its reference
+    String save(InputStream content, String contentType) throws IOException;
+
+    // Empty when the reference is unknown to this store
+    Optional<StoredImage> load(String reference);
+
+    void delete(String reference);
+}
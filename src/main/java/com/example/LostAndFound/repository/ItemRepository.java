@@ -2,6 +2,7 @@ package com.example.LostAndFound.repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
@@ -11,7 +12,15 @@ import com.example.LostAndFound.entity.Item;
 import com.example.LostAndFound.entity.Item.ItemStatus;
 
 @Repository
-public interface ItemRepository extends MongoRepository<Item, String> {
+public interface ItemRepository extends MongoRepository<Item, String>, ItemRepositoryCustom {
+
+    // Only the image references (or legacy embedded bytes) of one item
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'imageId': 1, 'imageRenditions': 1, 'itemImage': 1 }")
+    Optional<Item> findImageById(String id);
+
+    // Only what saveItem needs to tell whether an update makes the item newly FOUND
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'status': 1, 'notificationsPending': 1 }")
+    Optional<Item> findStatusById(String id);
 
     // Find items by status
     List<Item> findByStatus(ItemStatus status);
@@ -42,7 +51,6 @@ public interface ItemRepository extends MongoRepository<Item, String> {
     @Query("{ 'status': ?0 }")
     List<Item> findItemsByStatus(ItemStatus status);
      List<Item> findByItemNameIgnoreCase(String itemName);
-    List<Item> findByCategoryAndLocationAndStatus(String category, String location, String status);
 
     /**
      * Example aggregation: fetch items with username from User collection
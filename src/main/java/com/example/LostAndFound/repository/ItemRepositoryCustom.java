@@ -0,0 +1,72 @@
+package com.example.LostAndFound.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import com.example.LostAndFound.dto.ItemCursor;
+import com.example.LostAndFound.dto.ItemSearchQuery;
+import com.example.LostAndFound.dto.ItemSummary;
+import com.example.LostAndFound.dto.UserDashboard;
+import com.example.LostAndFound.entity.Item;
+
+/**
+ * Queries on items that need MongoTemplate rather than derived repository methods.
+ */
+public interface ItemRepositoryCustom {
+
+    /**
+     * Returns up to {@code limit} item summaries ordered by dateReported desc, _id desc,
+     * starting strictly after {@code after}. Both {@code status} and {@code after} are optional.
+     * The image bytes are never read; only whether an image exists.
+     */
+    List<ItemSummary> findPage(Item.ItemStatus status, ItemCursor after, int limit);
+
+    /**
+     * One aggregation over the text and compound indexes. With search text the results are
+     * ordered by text score (exposed as {@link ItemSummary#getScore()}), otherwise newest first.
+     */
+    List<ItemSummary> search(ItemSearchQuery query, long skip, int limit);
+
+    /**
+     * Every summary with the given status (any when null), newest first, read from a cursor
+     * {@code batchSize} documents at a time. The caller must close the stream.
+     */
+    Stream<ItemSummary> streamSummaries(Item.ItemStatus status, int batchSize);
+
+    // Like search, without skip or limit, read from a cursor; the caller must close the stream
+    Stream<ItemSummary> streamSearch(ItemSearchQuery query, int batchSize);
+
+    /**
+     * Everything the user dashboard shows, in one round trip: starts from the user document and
+     * $lookups the user's items through a $facet of per-status counts and the newest {@code recentLimit}.
+     * Empty when the user does not exist.
+     */
+    Optional<UserDashboard> findDashboard(String userId, int recentLimit);
+
+    /**
+     * LOST items whose name equals {@code itemName} ignoring case, with only id, userId and
+     * itemName loaded. Uses the case-insensitive (status, itemName) index.
+     */
+    List<Item> findLostItemsNamed(String itemName);
+
+    // Number of items per status in one aggregation; statuses without items are absent
+    Map<Item.ItemStatus, Long> countByStatus();
+
+    /**
+     * Sets status CLAIMED, claimedBy and claimedAt in one conditional findAndModify, unless the
+     * item is already CLAIMED. Returns the item as it was before (without image bytes), or empty
+     * when nothing matched. Two concurrent claims of the same item never both succeed.
+     */
+    Optional<Item> claim(String id, String claimantUserId);
+
+    // Stores the renditions and READY on an item whose image is still PENDING; false if it no longer is
+    boolean markImageReady(String id, Map<Item.ImageRendition, String> renditions);
+
+    void markImageFailed(String id);
+
+    // FAILED on images still PENDING for items created before the cutoff; returns how many
+    long markStalePendingImagesFailed(LocalDateTime createdBefore);
+}
@@ -0,0 +1,265 @@
+package com.example.LostAndFound.repository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.aggregation.BooleanOperators;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.DataTypeOperators;
+import org.springframework.data.mongodb.core.aggregation.LookupOperation;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Collation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.example.LostAndFound.dto.ItemCursor;
+import com.example.LostAndFound.dto.ItemSearchQuery;
+import com.example.LostAndFound.dto.ItemSummary;
+import com.example.LostAndFound.dto.UserDashboard;
+import com.example.LostAndFound.entity.Item;
+
+class ItemRepositoryImpl implements ItemRepositoryCustom {
+
+    // Must match the collation of the status_itemName_ci index on Item
+    static final Collation CASE_INSENSITIVE = Collation.of("en").strength(Collation.ComparisonLevel.secondary());
+
+    static final Sort BEST_MATCH_FIRST = Sort.by(Sort.Direction.DESC, "score")
+            .and(Sort.by(Sort.Direction.DESC, "dateReported"));
+    // Must match the status_dateReported_id and dateReported_id indexes on Item
+    static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "dateReported")
+            .and(Sort.by(Sort.Direction.DESC, "id"));
+
+    private final MongoTemplate mongoTemplate;
+
+    ItemRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<ItemSummary> findPage(Item.ItemStatus status, ItemCursor after, int limit) {
+        TypedAggregation<Item> aggregation = Aggregation.newAggregation(Item.class,
+                Aggregation.match(pageCriteria(status, after)),
+                Aggregation.sort(NEWEST_FIRST),
+                Aggregation.limit(limit),
+                summaryProjection());
+        return mongoTemplate.aggregate(aggregation, ItemSummary.class).getMappedResults();
+    }
+
+    // ------------------- Cursor streams -------------------
+    // The driver fetches the next batch only once the previous one has been consumed
+    @Override
+    public Stream<ItemSummary> streamSummaries(Item.ItemStatus status, int batchSize) {
+        TypedAggregation<Item> aggregation = Aggregation.newAggregation(Item.class,
+                Aggregation.match(pageCriteria(status, null)),
+                Aggregation.sort(NEWEST_FIRST),
+                summaryProjection())
+                .withOptions(AggregationOptions.builder().cursorBatchSize(batchSize).build());
+        return mongoTemplate.aggregateStream(aggregation, ItemSummary.class);
+    }
+
+    @Override
+    public Stream<ItemSummary> streamSearch(ItemSearchQuery query, int batchSize) {
+        TypedAggregation<Item> aggregation = searchAggregation(query, 0, 0)
+                .withOptions(AggregationOptions.builder().cursorBatchSize(batchSize).build());
+        return mongoTemplate.aggregateStream(aggregation, ItemSummary.class);
+    }
+
+    // ------------------- Search -------------------
+    @Override
+    public List<ItemSummary> search(ItemSearchQuery query, long skip, int limit) {
+        return mongoTemplate.aggregate(searchAggregation(query, skip, limit), ItemSummary.class).getMappedResults();
+    }
+
+    // limit 0 = no limit
+    static TypedAggregation<Item> searchAggregation(ItemSearchQuery query, long skip, int limit) {
+        List<AggregationOperation> pipeline = new ArrayList<>();
+        if (query.hasText()) {
+            // $text must be the first stage; MongoDB merges it with the filter $match below
+            pipeline.add(Aggregation.match(TextCriteria.forDefaultLanguage().matching(query.text())));
+            pipeline.add(Aggregation.addFields().addField("score")
+                    .withValueOf((AggregationExpression) context -> new Document("$meta", "textScore"))
+                    .build());
+        }
+        pipeline.add(Aggregation.match(searchCriteria(query)));
+        pipeline.add(Aggregation.sort(query.hasText() ? BEST_MATCH_FIRST : NEWEST_FIRST));
+        if (skip > 0) {
+            pipeline.add(Aggregation.skip(skip));
+        }
+        if (limit > 0) {
+            pipeline.add(Aggregation.limit(limit));
+        }
+        pipeline.add(query.hasText() ? summaryProjection("score") : summaryProjection());
+        return Aggregation.newAggregation(Item.class, pipeline);
+    }
+
+    static Criteria searchCriteria(ItemSearchQuery query) {
+        List<Criteria> filters = new ArrayList<>();
+        if (query.status() != null) {
+            filters.add(Criteria.where("status").is(query.status()));
+        }
+        if (query.itemType() != null && !query.itemType().isBlank()) {
+            filters.add(Criteria.where("itemType").is(query.itemType()));
+        }
+        if (query.location() != null && !query.location().isBlank()) {
+            // Anchored, so the scan stays within the location index range
+            filters.add(Criteria.where("location").regex("^" + Pattern.quote(query.location().trim()), "i"));
+        }
+        if (query.reportedAfter() != null) {
+            filters.add(Criteria.where("dateReported").gt(query.reportedAfter()));
+        }
+        return filters.isEmpty() ? new Criteria() : new Criteria().andOperator(filters);
+    }
+
+    // ------------------- Dashboard -------------------
+    @Override
+    public Optional<UserDashboard> findDashboard(String userId, int recentLimit) {
+        return Optional.ofNullable(mongoTemplate.aggregate(dashboardAggregation(userId, recentLimit),
+                "users", UserDashboard.class).getUniqueMappedResult());
+    }
+
+    // Untyped on purpose: on User "userId" is the _id, inside the lookup it is the items' userId field
+    static Aggregation dashboardAggregation(String userId, int recentLimit) {
+        // String ids that look like ObjectIds are stored as ObjectIds
+        Object userKey = ObjectId.isValid(userId) ? new ObjectId(userId) : userId;
+        LookupOperation items = LookupOperation.newLookup()
+                .from("items")
+                .pipeline(
+                        Aggregation.match(Criteria.where("userId").is(userId)),
+                        Aggregation.facet(Aggregation.group("status").count().as("count"))
+                                .as("statusCounts")
+                                .and(Aggregation.sort(Sort.by(Sort.Direction.DESC, "dateReported", "_id")),
+                                        Aggregation.limit(recentLimit),
+                                        Aggregation.project("itemName", "itemType", "dateReported", "status"))
+                                .as("recentItems"))
+                .as("dashboard");
+        return Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("_id").is(userKey)),
+                items,
+                Aggregation.unwind("dashboard"),
+                Aggregation.project("firstName", "lastName")
+                        .and("dashboard.statusCounts").as("statusCounts")
+                        .and("dashboard.recentItems").as("recentItems"));
+    }
+
+    // ------------------- Stats -------------------
+    @Override
+    public Map<Item.ItemStatus, Long> countByStatus() {
+        TypedAggregation<Item> aggregation = Aggregation.newAggregation(Item.class,
+                Aggregation.group("status").count().as("count"));
+        Map<Item.ItemStatus, Long> counts = new EnumMap<>(Item.ItemStatus.class);
+        for (UserDashboard.StatusCount statusCount : mongoTemplate.aggregate(aggregation, UserDashboard.StatusCount.class)) {
+            if (statusCount.id() != null) {
+                counts.put(statusCount.id(), statusCount.count());
+            }
+        }
+        return counts;
+    }
+
+    // ------------------- Notification matching -------------------
+    @Override
+    public List<Item> findLostItemsNamed(String itemName) {
+        Query lost = Query.query(Criteria.where("status").is(Item.ItemStatus.LOST).and("itemName").is(itemName))
+                .collation(CASE_INSENSITIVE);
+        lost.fields().include("userId", "itemName");
+        return mongoTemplate.find(lost, Item.class);
+    }
+
+    // ------------------- Claim -------------------
+    @Override
+    public Optional<Item> claim(String id, String claimantUserId) {
+        Query unclaimed = Query.query(Criteria.where("id").is(id).and("status").ne(Item.ItemStatus.CLAIMED));
+        unclaimed.fields().exclude("itemImage");
+        Update claimed = new Update()
+                .set("status", Item.ItemStatus.CLAIMED)
+                .set("claimedAt", LocalDateTime.now());
+        if (claimantUserId != null) {
+            claimed.set("claimedBy", claimantUserId);
+        }
+        // returnNew(false): the caller needs the status it had before
+        return Optional.ofNullable(mongoTemplate.findAndModify(unclaimed, claimed,
+                FindAndModifyOptions.options().returnNew(false), Item.class));
+    }
+
+    // ------------------- Image processing state -------------------
+    @Override
+    public boolean markImageReady(String id, Map<Item.ImageRendition, String> renditions) {
+        Map<String, String> references = new LinkedHashMap<>();
+        renditions.forEach((rendition, reference) -> references.put(rendition.key(), reference));
+        Query pending = Query.query(Criteria.where("id").is(id).and("imageStatus").is(Item.ImageStatus.PENDING));
+        Update ready = new Update()
+                .set("imageRenditions", references)
+                .set("imageId", renditions.get(Item.ImageRendition.DETAIL))
+                .set("imageStatus", Item.ImageStatus.READY);
+        return mongoTemplate.updateFirst(pending, ready, Item.class).getModifiedCount() == 1;
+    }
+
+    @Override
+    public void markImageFailed(String id) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(id)),
+                Update.update("imageStatus", Item.ImageStatus.FAILED), Item.class);
+    }
+
+    @Override
+    public long markStalePendingImagesFailed(LocalDateTime createdBefore) {
+        // The _id carries the creation time; dateReported is whatever the reporter entered
+        ObjectId cutoff = new ObjectId(Date.from(createdBefore.atZone(ZoneId.systemDefault()).toInstant()));
+        Query stale = Query.query(Criteria.where("imageStatus").is(Item.ImageStatus.PENDING).and("id").lt(cutoff));
+        return mongoTemplate.updateMulti(stale, Update.update("imageStatus", Item.ImageStatus.FAILED), Item.class)
+                .getModifiedCount();
+    }
+
+    // ------------------- Summary projection -------------------
+    // Drops itemImage inside the server and replaces it with a hasImage flag
+    static AggregationOperation summaryProjection(String... extraFields) {
+        return Aggregation.project("userId", "itemName", "itemType", "description",
+                        "location", "status", "dateReported", "imageStatus")
+                .andInclude(extraFields)
+                .and(BooleanOperators.Or.or(
+                        ComparisonOperators.Eq.valueOf(DataTypeOperators.Type.typeOf("imageId"))
+                                .equalToValue("string"),
+                        ComparisonOperators.Eq.valueOf(DataTypeOperators.Type.typeOf("itemImage"))
+                                .equalToValue("binData")))
+                .as("hasImage");
+    }
+
+    // ------------------- Keyset criteria -------------------
+    static Criteria pageCriteria(Item.ItemStatus status, ItemCursor after) {
+        Criteria criteria = new Criteria();
+        if (status != null) {
+            criteria = Criteria.where("status").is(status);
+        }
+        if (after != null && after.dateReported() == null) {
+            // Already among the undated items, which sort last: (no dateReported AND _id < id)
+            criteria = criteria.and("dateReported").is(null).and("id").lt(new ObjectId(after.id()));
+        } else if (after != null) {
+            // (dateReported < d) OR (dateReported == d AND _id < id) OR no dateReported at all ($lt skips those)
+            criteria = criteria.orOperator(
+                    Criteria.where("dateReported").lt(after.dateReported()),
+                    Criteria.where("dateReported").is(after.dateReported())
+                            .and("id").lt(new ObjectId(after.id())),
+                    Criteria.where("dateReported").is(null));
+        }
+        return criteria;
+    }
+}
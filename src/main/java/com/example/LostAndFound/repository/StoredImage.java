@@ -0,0 +1,33 @@
+package com.example.LostAndFound.repository;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.util.DigestUtils;
+
+/**
+ * An image read back from storage. The reference never changes for a given
+ * content, so it doubles as the HTTP entity tag.
+ */
+public record StoredImage(String reference, String contentType, Resource content) {
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G'};
+
+    // Wraps bytes still embedded in a document (not yet migrated to the ImageStore)
+    public static StoredImage fromBytes(byte[] bytes) {
+        return new StoredImage(DigestUtils.md5DigestAsHex(bytes), sniffContentType(bytes),
+                new ByteArrayResource(bytes));
+    }
+
+    // Uploaded pictures are stored as-is, so tell PNG apart from the JPEG default
+    public static String sniffContentType(byte[] bytes) {
+        if (bytes.length >= PNG_SIGNATURE.length) {
+            for (int i = 0; i < PNG_SIGNATURE.length; i++) {
+                if (bytes[i] != PNG_SIGNATURE[i]) {
+                    return "image/jpeg";
+                }
+            }
+            return "image/png";
+        }
+        return "image/jpeg";
+    }
+}
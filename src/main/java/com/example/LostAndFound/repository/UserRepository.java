@@ -1,16 +1,33 @@
 package com.example.LostAndFound.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.example.LostAndFound.entity.User;
 
 @Repository
-public interface UserRepository extends MongoRepository<User, String> {
+public interface UserRepository extends MongoRepository<User, String>, UserRepositoryCustom {
     Optional<User> findByEmail(String email);
     Optional<User> findByUsername(String username);
+    @Query(value = "{ 'username': ?0 }", fields = "{ 'profilePictureId': 1, 'profilePicture': 1 }")
+    Optional<User> findProfilePictureByUsername(String username);
+    @Query(value = "{ 'username': ?0 }", fields = "{ 'password': 1 }")
+    Optional<User> findPasswordByUsername(String username);
+    // Everything but the legacy base64 profilePicture; read-only, saving one would drop the picture
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'profilePicture': 0 }")
+    Optional<User> findWithoutPictureByUserId(String userId);
+    @Query(value = "{ 'username': ?0 }", fields = "{ 'profilePicture': 0 }")
+    Optional<User> findWithoutPictureByUsername(String username);
+    @Query(value = "{ 'email': ?0 }", fields = "{ 'profilePicture': 0 }")
+    Optional<User> findWithoutPictureByEmail(String email);
+    // Just enough to email a batch of users in one query
+    @Query(value = "{ '_id': { $in: ?0 } }", fields = "{ 'firstName': 1, 'email': 1 }")
+    List<User> findContactsByUserIdIn(Collection<String> userIds);
     @Override
     long count();
 }
@@ -0,0 +1,27 @@
+package com.example.LostAndFound.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.example.LostAndFound.entity.User;
+
+/**
+ * Writes on users that change single fields instead of saving the whole document.
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Applies {@code update} to the user in one findAndModify and returns the user as it was
+     * before, without profilePicture and password; empty when there is no such user.
+     * Throws {@link org.springframework.dao.DuplicateKeyException} when the new username or
+     * email is taken (both have unique indexes).
+     */
+    Optional<User> updateByUsername(String username, Update update);
+
+    /**
+     * Swaps the stored password hash for {@code newHash}, unless it is no longer {@code oldHash}
+     * (the password was changed meanwhile). Returns whether it was swapped.
+     */
+    boolean replacePasswordHash(String username, String oldHash, String newHash);
+}
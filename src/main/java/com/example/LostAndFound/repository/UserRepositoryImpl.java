@@ -0,0 +1,36 @@
+package com.example.LostAndFound.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.example.LostAndFound.entity.User;
+
+class UserRepositoryImpl implements UserRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    UserRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Optional<User> updateByUsername(String username, Update update) {
+        Query byUsername = Query.query(Criteria.where("username").is(username));
+        byUsername.fields().exclude("profilePicture", "password");
+        // returnNew(false): callers evict cache entries under the old username/email
+        return Optional.ofNullable(mongoTemplate.findAndModify(byUsername, update,
+                FindAndModifyOptions.options().returnNew(false), User.class));
+    }
+
+    @Override
+    public boolean replacePasswordHash(String username, String oldHash, String newHash) {
+        Query unchanged = Query.query(Criteria.where("username").is(username).and("password").is(oldHash));
+        return mongoTemplate.updateFirst(unchanged, Update.update("password", newHash), User.class)
+                .getModifiedCount() == 1;
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.LostAndFound.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import com.example.LostAndFound.entity.Item;
+import com.example.LostAndFound.event.ItemEvent;
+import com.example.LostAndFound.event.UserEvent;
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.UpdateDescription;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Tails the items and users collections with MongoDB change streams and republishes every
+ * write, from any instance, as {@link ItemEvent} / {@link UserEvent} application events.
+ *
+ * The resume token of the last handled change is stored in the changeStreamTokens collection,
+ * so after a restart the stream continues where it stopped instead of missing writes. When the
+ * token is too old for the oplog a Resync event tells listeners to reload.
+ * Needs a replica set (or sharded cluster); off by default with app.change-streams.enabled.
+ */
+@Service
+public class ChangeStreamListener {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeStreamListener.class);
+    private static final String TOKENS = "changeStreamTokens";
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+    private static final Duration INITIAL_RETRY_DELAY = Duration.ofSeconds(1);
+    private static final Duration MAX_RETRY_DELAY = Duration.ofSeconds(30);
+
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher publisher;
+    private final boolean enabled;
+    private final List<Thread> watchers = new ArrayList<>();
+    private volatile boolean running;
+
+    public ChangeStreamListener(MongoTemplate mongoTemplate,
+                                ApplicationEventPublisher publisher,
+                                @Value("${app.change-streams.enabled:false}") boolean enabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.publisher = publisher;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        // Image bytes and credentials never need to travel with the event
+        watchers.add(watch("items", List.of("fullDocument.itemImage"), this::publishItemChange, new ItemEvent.Resync()));
+        watchers.add(watch("users", List.of("fullDocument.password", "fullDocument.profilePicture"),
+                this::publishUserChange, new UserEvent.Resync()));
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        watchers.forEach(Thread::interrupt);
+    }
+
+    private Thread watch(String collection, List<String> excludedFields,
+                         Consumer<ChangeStreamDocument<Document>> handler, Object resync) {
+        return Thread.ofPlatform().name("change-stream-" + collection).daemon().start(() -> {
+            Duration retryDelay = INITIAL_RETRY_DELAY;
+            AtomicBoolean received = new AtomicBoolean();
+            while (running) {
+                RuntimeException failure;
+                received.set(false);
+                try {
+                    tail(collection, excludedFields, handler, received);
+                    continue;
+                } catch (MongoCommandException e) {
+                    if (e.getErrorCode() == CHANGE_STREAM_HISTORY_LOST) {
+                        log.warn("Resume point for {} is gone from the oplog, starting over", collection);
+                        mongoTemplate.getCollection(TOKENS).deleteOne(new Document("_id", collection));
+                        publisher.publishEvent(resync);
+                        continue;
+                    }
+                    failure = e;
+                } catch (RuntimeException e) {
+                    if (!running) {
+                        return;
+                    }
+                    failure = e;
+                }
+                // The stream had been working again, so this is a new outage, not the old one going on
+                if (received.get()) {
+                    retryDelay = INITIAL_RETRY_DELAY;
+                }
+                log.warn("Change stream on {} failed, retrying in {}s: {}", collection, retryDelay.toSeconds(), failure.getMessage());
+                try {
+                    Thread.sleep(retryDelay);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                retryDelay = retryDelay.multipliedBy(2).compareTo(MAX_RETRY_DELAY) > 0
+                        ? MAX_RETRY_DELAY : retryDelay.multipliedBy(2);
+            }
+        });
+    }
+
+    private void tail(String collection, List<String> excludedFields,
+                      Consumer<ChangeStreamDocument<Document>> handler, AtomicBoolean received) {
+        Document exclude = new Document();
+        excludedFields.forEach(field -> exclude.append(field, 0));
+        var stream = mongoTemplate.getCollection(collection)
+                .watch(List.of(new Document("$project", exclude)))
+                .fullDocument(FullDocument.UPDATE_LOOKUP);
+        BsonDocument resumeToken = loadToken(collection);
+        if (resumeToken != null) {
+            stream = stream.resumeAfter(resumeToken);
+        }
+        try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = stream.cursor()) {
+            log.info("Watching {} for changes{}", collection, resumeToken != null ? " (resumed)" : "");
+            while (running) {
+                ChangeStreamDocument<Document> change = cursor.tryNext();
+                if (change == null) {
+                    continue;   // tryNext waits up to the server's await time
+                }
+                received.set(true);
+                handler.accept(change);
+                // After publishing: a crash in between means the change is delivered again, never lost
+                saveToken(collection, change.getResumeToken());
+            }
+        }
+    }
+
+    // ------------------- Mapping -------------------
+    private void publishItemChange(ChangeStreamDocument<Document> change) {
+        String id = documentId(change);
+        Item item = change.getFullDocument() == null ? null
+                : mongoTemplate.getConverter().read(Item.class, change.getFullDocument());
+        ItemEvent event = switch (change.getOperationType()) {
+            case INSERT -> new ItemEvent.Created(item);
+            case UPDATE -> item == null ? null          // deleted before the lookup; the delete follows
+                    : statusSet(change.getUpdateDescription()) ? new ItemEvent.StatusChanged(item, null)
+                    : new ItemEvent.Updated(item);
+            case REPLACE -> item == null ? null : new ItemEvent.Updated(item);
+            case DELETE -> new ItemEvent.Deleted(id);
+            case DROP, RENAME, DROP_DATABASE, INVALIDATE -> new ItemEvent.Resync();
+            default -> null;
+        };
+        if (event != null) {
+            publisher.publishEvent(event);
+        }
+    }
+
+    private void publishUserChange(ChangeStreamDocument<Document> change) {
+        UserEvent event = switch (change.getOperationType()) {
+            case INSERT, UPDATE, REPLACE -> new UserEvent.Changed(documentId(change));
+            case DELETE -> new UserEvent.Deleted(documentId(change));
+            case DROP, RENAME, DROP_DATABASE, INVALIDATE -> new UserEvent.Resync();
+            default -> null;
+        };
+        if (event != null) {
+            publisher.publishEvent(event);
+        }
+    }
+
+    private static boolean statusSet(UpdateDescription update) {
+        return update != null && update.getUpdatedFields() != null && update.getUpdatedFields().containsKey("status");
+    }
+
+    private static String documentId(ChangeStreamDocument<Document> change) {
+        if (change.getDocumentKey() == null || !change.getDocumentKey().containsKey("_id")) {
+            return null;
+        }
+        var id = change.getDocumentKey().get("_id");
+        return id.isObjectId() ? id.asObjectId().getValue().toHexString() : id.asString().getValue();
+    }
+
+    // ------------------- Resume tokens -------------------
+    private BsonDocument loadToken(String collection) {
+        Document saved = mongoTemplate.getCollection(TOKENS).find(new Document("_id", collection)).first();
+        return saved == null ? null : BsonDocument.parse(saved.get("token", Document.class).toJson());
+    }
+
+    private void saveToken(String collection, BsonDocument token) {
+        mongoTemplate.getCollection(TOKENS).replaceOne(new Document("_id", collection),
+                new Document("_id", collection)
+                        .append("token", Document.parse(token.toJson()))
+                        .append("updatedAt", Instant.now()),
+                new ReplaceOptions().upsert(true));
+    }
+}
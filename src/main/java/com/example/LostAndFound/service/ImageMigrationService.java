@@ -0,0 +1,152 @@
+package com.example.LostAndFound.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject;
+import org.springframework.stereotype.Service;
+
+import com.example.LostAndFound.entity.Item;
+import com.example.LostAndFound.entity.User;
+import com.example.LostAndFound.repository.ImageStore;
+import com.example.LostAndFound.repository.StoredImage;
+
+/**
+ * Moves images embedded in item and user documents into the ImageStore, one batch
+ * at a time, leaving only the reference behind. Safe to re-run: each document is
+ * switched over with a conditional update, so concurrent edits are never overwritten.
+ * A document whose image cannot be read (e.g. invalid base64) is logged and its field renamed
+ * to itemImageInvalid / profilePictureInvalid, so it is kept for inspection but not retried.
+ */
+@Service
+public class ImageMigrationService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageMigrationService.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final ImageStore imageStore;
+    private final boolean runOnStartup;
+    private final int batchSize;
+
+    public ImageMigrationService(MongoTemplate mongoTemplate,
+                                 ImageStore imageStore,
+                                 @Value("${app.images.migration.enabled:false}") boolean runOnStartup,
+                                 @Value("${app.images.migration.batch-size:100}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.imageStore = imageStore;
+        this.runOnStartup = runOnStartup;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateOnStartup() {
+        if (!runOnStartup) {
+            return;
+        }
+        // Runs beside the app so a large backlog does not hold up startup
+        Thread.ofPlatform().name("image-migration").daemon().start(() -> {
+            try {
+                int items = migrateItemImages();
+                int users = migrateProfilePictures();
+                log.info("Image migration finished: {} item images, {} profile pictures", items, users);
+            } catch (Exception e) {
+                log.error("Image migration stopped", e);
+            }
+        });
+    }
+
+    // ------------------- Items -------------------
+    public int migrateItemImages() throws IOException {
+        Criteria embedded = Criteria.where("itemImage").type(JsonSchemaObject.Type.binaryType());
+        int migrated = 0;
+        while (true) {
+            Query batch = Query.query(embedded).limit(batchSize);
+            batch.fields().include("itemImage");
+            List<Item> items = mongoTemplate.find(batch, Item.class);
+            if (items.isEmpty()) {
+                return migrated;
+            }
+            for (Item item : items) {
+                String reference;
+                try {
+                    reference = imageStore.save(new ByteArrayInputStream(item.getItemImage()), "image/jpeg");
+                } catch (RuntimeException e) {
+                    setAside("items", "id", item.getId(), "itemImage", embedded, Item.class, e);
+                    continue;
+                }
+                boolean switched = mongoTemplate.updateFirst(
+                        Query.query(Criteria.where("id").is(item.getId()).andOperator(embedded)),
+                        new Update().set("imageId", reference).unset("itemImage"),
+                        Item.class).getModifiedCount() == 1;
+                if (switched) {
+                    migrated++;
+                } else {
+                    imageStore.delete(reference);
+                }
+            }
+            log.info("Migrated {} item images so far", migrated);
+        }
+    }
+
+    // ------------------- Users -------------------
+    public int migrateProfilePictures() throws IOException {
+        // Empty strings carry no picture; just drop them
+        mongoTemplate.updateMulti(Query.query(Criteria.where("profilePicture").is("")),
+                new Update().unset("profilePicture"), User.class);
+
+        Criteria embedded = Criteria.where("profilePicture").type(JsonSchemaObject.Type.stringType());
+        int migrated = 0;
+        while (true) {
+            Query batch = Query.query(embedded).limit(batchSize);
+            batch.fields().include("profilePicture").include("profilePictureId");
+            List<User> users = mongoTemplate.find(batch, User.class);
+            if (users.isEmpty()) {
+                return migrated;
+            }
+            for (User user : users) {
+                String reference;
+                try {
+                    byte[] picture = Base64.getDecoder().decode(user.getProfilePicture());
+                    reference = imageStore.save(new ByteArrayInputStream(picture),
+                            StoredImage.sniffContentType(picture));
+                } catch (RuntimeException e) {
+                    setAside("users", "userId", user.getUserId(), "profilePicture", embedded, User.class, e);
+                    continue;
+                }
+                boolean switched = mongoTemplate.updateFirst(
+                        Query.query(Criteria.where("userId").is(user.getUserId()).andOperator(embedded)),
+                        new Update().set("profilePictureId", reference).unset("profilePicture"),
+                        User.class).getModifiedCount() == 1;
+                if (switched) {
+                    migrated++;
+                    if (user.getProfilePictureId() != null) {
+                        imageStore.delete(user.getProfilePictureId());
+                    }
+                } else {
+                    imageStore.delete(reference);
+                }
+            }
+            log.info("Migrated {} profile pictures so far", migrated);
+        }
+    }
+
+    // Moves an unreadable image to <field>Invalid so the next batch query no longer picks it up.
+    // IOExceptions from the store are not handled here: they stop the run, to be retried later.
+    private void setAside(String collection, String idField, String id, String field, Criteria embedded,
+                          Class<?> entity, RuntimeException error) {
+        log.warn("Skipping {} {}: {} could not be migrated ({})", collection, id, field, error.getMessage());
+        mongoTemplate.updateFirst(Query.query(Criteria.where(idField).is(id).andOperator(embedded)),
+                new Update().rename(field, field + "Invalid"), entity);
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.LostAndFound.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.LostAndFound.entity.Item;
+import com.example.LostAndFound.repository.ImageStore;
+import com.example.LostAndFound.repository.ItemRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Renders uploaded item images (see {@link ImageRenderer}) off the request thread.
+ *
+ * Admission is bounded: callers take a slot with {@link #tryAcquireSlot()} before
+ * saving the item and get a fast refusal when workers and queue are full. The slot
+ * is handed over to {@link #submit} and released when the job ends.
+ *
+ * Jobs live only in memory, as do their sources, so a restart loses whatever was queued.
+ * A sweep marks items left PENDING past stale-pending-minutes FAILED; nothing could
+ * requeue them, and otherwise they would wait on an image forever.
+ */
+@Service
+public class ImageProcessingService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageProcessingService.class);
+
+    @FunctionalInterface
+    public interface ImageSource {
+        InputStream open() throws IOException;
+    }
+
+    private final ItemRepository itemRepository;
+    private final ImageStore imageStore;
+    private final ImageRenderer imageRenderer;
+    private final ThreadPoolExecutor executor;
+    private final Semaphore slots;
+    private final Timer queueWait;
+    private final Timer processedOk;
+    private final Timer processedFailed;
+    private final Counter rejected;
+    private final Duration stalePendingAfter;
+
+    public ImageProcessingService(ItemRepository itemRepository,
+                                  ImageStore imageStore,
+                                  ImageRenderer imageRenderer,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.images.pipeline.workers:0}") int workers,
+                                  @Value("${app.images.pipeline.queue-capacity:100}") int queueCapacity,
+                                  @Value("${app.images.pipeline.stale-pending-minutes:15}") long stalePendingMinutes) {
+        this.itemRepository = itemRepository;
+        this.stalePendingAfter = Duration.ofMinutes(stalePendingMinutes);
+        this.imageStore = imageStore;
+        this.imageRenderer = imageRenderer;
+        int threads = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        // The queue itself is unbounded; the semaphore is what bounds it.
+        // Rendering is CPU-bound, so these stay platform threads in virtual-thread mode too.
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), Thread.ofPlatform().name("image-worker-", 0).factory());
+        this.slots = new Semaphore(threads + queueCapacity);
+
+        Gauge.builder("images.pipeline.queue.depth", executor, e -> e.getQueue().size())
+                .description("Images waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("images.pipeline.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("images.pipeline.queue.wait")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.processedOk = processingTimer(meterRegistry, "success");
+        this.processedFailed = processingTimer(meterRegistry, "failure");
+        this.rejected = Counter.builder("images.pipeline.rejected").register(meterRegistry);
+    }
+
+    private static Timer processingTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("images.pipeline.processing")
+                .description("Decode one image, then encode and store all its renditions")
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    // false when the pipeline is saturated and the upload should be refused
+    public boolean tryAcquireSlot() {
+        boolean acquired = slots.tryAcquire();
+        if (!acquired) {
+            rejected.increment();
+        }
+        return acquired;
+    }
+
+    public void releaseSlot() {
+        slots.release();
+    }
+
+    // Caller must hold a slot from tryAcquireSlot(); it is released when the job ends
+    public void submit(String itemId, ImageSource source) {
+        long enqueuedAt = System.nanoTime();
+        executor.execute(() -> {
+            queueWait.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+            long startedAt = System.nanoTime();
+            try {
+                process(itemId, source);
+                processedOk.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            } catch (Exception e) {
+                processedFailed.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                log.warn("Image processing failed for item {}: {}", itemId, e.getMessage());
+                itemRepository.markImageFailed(itemId);
+            } finally {
+                slots.release();
+            }
+        });
+    }
+
+    private void process(String itemId, ImageSource source) throws IOException {
+        Map<Item.ImageRendition, byte[]> rendered;
+        try (InputStream in = source.open()) {
+            rendered = imageRenderer.render(in);
+        }
+        Map<Item.ImageRendition, String> references = new EnumMap<>(Item.ImageRendition.class);
+        for (Map.Entry<Item.ImageRendition, byte[]> rendition : rendered.entrySet()) {
+            references.put(rendition.getKey(),
+                    imageStore.save(new ByteArrayInputStream(rendition.getValue()), "image/jpeg"));
+        }
+        if (!itemRepository.markImageReady(itemId, references)) {
+            // Item was deleted or re-processed meanwhile
+            references.values().forEach(imageStore::delete);
+        }
+    }
+
+    // Shortly after startup for what the last process left behind, then now and then
+    @Scheduled(initialDelayString = "${app.images.pipeline.stale-sweep-initial-delay-ms:30000}",
+               fixedDelayString = "${app.images.pipeline.stale-sweep-interval-ms:600000}")
+    public void failStalePending() {
+        try {
+            long failed = itemRepository.markStalePendingImagesFailed(LocalDateTime.now().minus(stalePendingAfter));
+            if (failed > 0) {
+                log.warn("Marked {} items FAILED whose images were still PENDING after {} minutes",
+                        failed, stalePendingAfter.toMinutes());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Stale image sweep failed: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("{} queued images dropped at shutdown; the stale sweep fails their items", executor.shutdownNow().size());
+        }
+    }
+}
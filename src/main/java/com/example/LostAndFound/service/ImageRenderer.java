@@ -0,0 +1,83 @@
+package com.example.LostAndFound.service;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.LostAndFound.entity.Item;
+
+import net.coobird.thumbnailator.Thumbnails;
+
+/**
+ * Produces the JPEG renditions of an uploaded image with Thumbnailator.
+ * Each rendition fits inside its bounding box with the aspect ratio kept,
+ * and images already smaller than the box are re-encoded, never upscaled.
+ * Dimensions are read from the header first: a small file can declare an image whose
+ * decoded pixels would not fit in the heap, so anything over max-pixels is refused.
+ */
+@Component
+public class ImageRenderer {
+
+    private final double jpegQuality;
+    private final long maxPixels;
+
+    public ImageRenderer(@Value("${app.images.jpeg-quality:0.8}") double jpegQuality,
+                         @Value("${app.images.max-pixels:20000000}") long maxPixels) {
+        this.jpegQuality = jpegQuality;
+        this.maxPixels = maxPixels;
+    }
+
+    public Map<Item.ImageRendition, byte[]> render(InputStream source) throws IOException {
+        BufferedImage original = decode(source);
+        int longestSide = Math.max(original.getWidth(), original.getHeight());
+
+        Map<Item.ImageRendition, byte[]> renditions = new EnumMap<>(Item.ImageRendition.class);
+        for (Item.ImageRendition rendition : Item.ImageRendition.values()) {
+            Thumbnails.Builder<BufferedImage> builder = Thumbnails.of(original)
+                    .imageType(BufferedImage.TYPE_INT_RGB)   // drops alpha, which JPEG cannot hold
+                    .outputFormat("jpg")
+                    .outputQuality(jpegQuality);
+            if (longestSide > rendition.getMaxSize()) {
+                builder.size(rendition.getMaxSize(), rendition.getMaxSize());
+            } else {
+                builder.scale(1.0);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            builder.toOutputStream(out);
+            renditions.put(rendition, out.toByteArray());
+        }
+        return renditions;
+    }
+
+    private BufferedImage decode(InputStream source) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(source)) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                throw new IOException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    throw new IOException("Image too large: " + reader.getWidth(0) + "x" + reader.getHeight(0)
+                            + " pixels, at most " + maxPixels + " allowed");
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+}
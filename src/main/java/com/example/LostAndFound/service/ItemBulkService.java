@@ -0,0 +1,451 @@
+package com.example.LostAndFound.service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.example.LostAndFound.entity.Item;
+import com.example.LostAndFound.event.ItemEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Bulk item import and export, both streamed.
+ *
+ * Import reads NDJSON (one JSON object per line) or CSV with a header row, validates each row
+ * and inserts valid ones in unordered bulk writes of app.items.import.batch-size. Owners are
+ * checked with one query per batch, not one lookup per row. A bad row never stops the import;
+ * it is reported with its line number. Only an unterminated quote does, since everything after
+ * it belongs to that one field: it is reported like a bad row and the rest is not read.
+ *
+ * Export writes items straight from a cursor to the output in the same formats, so a file
+ * exported here can be imported again.
+ */
+@Service
+public class ItemBulkService {
+
+    private static final Logger log = LoggerFactory.getLogger(ItemBulkService.class);
+
+    // Columns of both formats, in CSV order; import accepts any subset in any order and
+    // ignores id (every imported row becomes a new item)
+    public static final List<String> COLUMNS = List.of("id", "userId", "itemName", "itemType", "description",
+            "location", "status", "dateReported", "claimedBy", "claimedAt");
+
+    public enum Format { NDJSON, CSV }
+
+    public record RowError(long line, String message) {}
+
+    public record ImportResult(long rows, long inserted, List<RowError> errors, boolean errorsTruncated) {}
+
+    private record Row(long line, Item item) {}
+
+    private final MongoTemplate mongoTemplate;
+    private final UserService userService;
+    private final ItemEventPublisher itemEventPublisher;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    public ItemBulkService(MongoTemplate mongoTemplate,
+                           UserService userService,
+                           ItemEventPublisher itemEventPublisher,
+                           ObjectMapper objectMapper,
+                           @Value("${app.items.import.batch-size:500}") int batchSize,
+                           @Value("${app.items.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.mongoTemplate = mongoTemplate;
+        this.userService = userService;
+        this.itemEventPublisher = itemEventPublisher;
+        this.objectMapper = objectMapper;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    // ------------------- Import -------------------
+    // Rows without a userId are reported by defaultUserId (may be null, then userId is required)
+    public ImportResult importItems(InputStream in, Format format, String defaultUserId) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        ImportState state = new ImportState();
+        List<Row> batch = new ArrayList<>(batchSize);
+        RowSource rows = format == Format.CSV ? new CsvRows(reader) : new NdjsonRows(reader);
+        while (true) {
+            Map<String, String> values;
+            try {
+                values = rows.next();
+            } catch (IllegalArgumentException e) {
+                state.rows++;
+                state.error(rows.line(), e.getMessage());
+                continue;
+            }
+            if (values == null) {
+                break;
+            }
+            state.rows++;
+            try {
+                batch.add(new Row(rows.line(), toItem(values, defaultUserId)));
+            } catch (IllegalArgumentException e) {
+                state.error(rows.line(), e.getMessage());
+            }
+            if (batch.size() == batchSize) {
+                insertBatch(batch, state);
+                batch.clear();
+            }
+        }
+        insertBatch(batch, state);
+        log.info("Item import: {} rows, {} inserted, {} rejected", state.rows, state.inserted, state.rejected);
+        return new ImportResult(state.rows, state.inserted, state.errors, state.rejected > state.errors.size());
+    }
+
+    private Item toItem(Map<String, String> values, String defaultUserId) {
+        Item item = new Item();
+        // Ids are set here so inserted items can be published without reading them back
+        item.setId(new ObjectId().toHexString());
+        item.setUserId(valueOr(values.get("userId"), defaultUserId));
+        item.setItemName(values.get("itemName"));
+        item.setItemType(values.get("itemType"));
+        item.setDescription(values.get("description"));
+        item.setLocation(values.get("location"));
+        if (item.getItemName() == null) {
+            throw new IllegalArgumentException("itemName is required");
+        }
+        if (item.getUserId() == null) {
+            throw new IllegalArgumentException("userId is required");
+        }
+        String status = values.get("status");
+        if (status != null) {
+            try {
+                item.setStatus(Item.ItemStatus.valueOf(status.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid status: " + status);
+            }
+        }
+        String dateReported = values.get("dateReported");
+        if (dateReported != null) {
+            try {
+                item.setDateReported(dateReported.contains("T")
+                        ? LocalDateTime.parse(dateReported)
+                        : LocalDate.parse(dateReported).atStartOfDay());
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid dateReported: " + dateReported);
+            }
+        }
+        if (item.getStatus() == Item.ItemStatus.FOUND) {
+            item.setNotificationsPending(true);    // same outbox path as a single report
+        }
+        return item;
+    }
+
+    private static String valueOr(String value, String fallback) {
+        return value != null ? value : fallback;
+    }
+
+    private void insertBatch(List<Row> batch, ImportState state) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        // One query for every owner in the batch
+        Set<String> knownUsers = userService.getContactsByIds(
+                batch.stream().map(row -> row.item().getUserId()).collect(Collectors.toSet())).keySet();
+        List<Row> valid = new ArrayList<>(batch.size());
+        for (Row row : batch) {
+            if (knownUsers.contains(row.item().getUserId())) {
+                valid.add(row);
+            } else {
+                state.error(row.line(), "Unknown userId: " + row.item().getUserId());
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        Set<Integer> failed = new HashSet<>();
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Item.class)
+                    .insert(valid.stream().map(Row::item).toList())
+                    .execute();
+        } catch (BulkOperationException e) {
+            // Unordered: everything not listed here was written
+            e.getErrors().forEach(error -> {
+                failed.add(error.getIndex());
+                state.error(valid.get(error.getIndex()).line(), error.getMessage());
+            });
+        }
+        for (int i = 0; i < valid.size(); i++) {
+            if (!failed.contains(i)) {
+                state.inserted++;
+                itemEventPublisher.publishLocal(new ItemEvent.Created(valid.get(i).item()));
+            }
+        }
+    }
+
+    private final class ImportState {
+        long rows;
+        long inserted;
+        long rejected;
+        final List<RowError> errors = new ArrayList<>();
+
+        void error(long line, String message) {
+            rejected++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new RowError(line, message));
+            }
+        }
+    }
+
+    // ------------------- Export -------------------
+    // Oldest first; the image bytes are never read
+    public void exportItems(Item.ItemStatus status, Format format, OutputStream out) throws IOException {
+        Query query = status == null ? new Query() : Query.query(Criteria.where("status").is(status));
+        query.with(Sort.by("dateReported", "id"));
+        query.fields().include(COLUMNS.toArray(String[]::new));
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            writeCsvRecord(writer, COLUMNS);
+        }
+        try (Stream<Item> items = mongoTemplate.stream(query, Item.class)) {
+            for (Item item : (Iterable<Item>) items::iterator) {
+                List<String> values = exportValues(item);
+                if (format == Format.CSV) {
+                    writeCsvRecord(writer, values);
+                } else {
+                    writeJsonLine(writer, values);
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    private static List<String> exportValues(Item item) {
+        List<String> values = new ArrayList<>(COLUMNS.size());
+        values.add(item.getId());
+        values.add(item.getUserId());
+        values.add(item.getItemName());
+        values.add(item.getItemType());
+        values.add(item.getDescription());
+        values.add(item.getLocation());
+        values.add(item.getStatus() == null ? null : item.getStatus().name());
+        values.add(item.getDateReported() == null ? null : item.getDateReported().toString());
+        values.add(item.getClaimedBy());
+        values.add(item.getClaimedAt() == null ? null : item.getClaimedAt().toString());
+        return values;
+    }
+
+    private void writeJsonLine(Writer writer, List<String> values) throws IOException {
+        Map<String, String> line = new LinkedHashMap<>();
+        for (int i = 0; i < COLUMNS.size(); i++) {
+            if (values.get(i) != null) {
+                line.put(COLUMNS.get(i), values.get(i));
+            }
+        }
+        writer.write(objectMapper.writeValueAsString(line));
+        writer.write('\n');
+    }
+
+    private static void writeCsvRecord(Writer writer, List<String> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String value = values.get(i);
+            if (value == null) {
+                continue;
+            }
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    // ------------------- Row readers -------------------
+    // Column -> value, blanks left out; null at end of input. line() is where the last row started.
+    // A row that cannot be read at all is an IllegalArgumentException (counted once, in importItems);
+    // when the input cannot be read past it, the following next() returns null.
+    private interface RowSource {
+        Map<String, String> next() throws IOException;
+
+        long line();
+    }
+
+    private final class NdjsonRows implements RowSource {
+        private final BufferedReader reader;
+        private long line;
+
+        NdjsonRows(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public Map<String, String> next() throws IOException {
+            String text;
+            do {
+                text = reader.readLine();
+                line++;
+            } while (text != null && text.isBlank());
+            if (text == null) {
+                return null;
+            }
+            Map<String, String> values = new LinkedHashMap<>();
+            try {
+                objectMapper.readTree(text).properties().forEach(field -> {
+                    if (!field.getValue().isNull() && !field.getValue().asText().isBlank()) {
+                        values.put(field.getKey(), field.getValue().asText().trim());
+                    }
+                });
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+            }
+            return values;
+        }
+
+        @Override
+        public long line() {
+            return line;
+        }
+    }
+
+    // RFC 4180: quoted fields may contain commas, doubled quotes and line breaks
+    private static final class CsvRows implements RowSource {
+        private final Reader reader;
+        private List<String> header;
+        private long line = 1;
+        private long recordLine;
+        private int pending = -2;   // one char of look-ahead; -2 = none
+        private boolean ended;      // after an unterminated quote
+
+        CsvRows(Reader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public Map<String, String> next() throws IOException {
+            if (ended) {
+                return null;
+            }
+            if (header == null) {
+                header = readRecord();
+                if (header == null) {
+                    return null;
+                }
+                header = header.stream().map(String::trim).toList();
+            }
+            List<String> record;
+            do {
+                record = readRecord();
+            } while (record != null && record.size() == 1 && record.get(0).isBlank());
+            if (record == null) {
+                return null;
+            }
+            Map<String, String> values = new LinkedHashMap<>();
+            for (int i = 0; i < Math.min(header.size(), record.size()); i++) {
+                String value = record.get(i).trim();
+                if (!value.isEmpty()) {
+                    values.put(header.get(i), value);
+                }
+            }
+            return values;
+        }
+
+        @Override
+        public long line() {
+            return recordLine;
+        }
+
+        private List<String> readRecord() throws IOException {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+            recordLine = line;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        ended = true;
+                        throw new IllegalArgumentException("Unterminated quoted field starting on line " + recordLine);
+                    }
+                    if (c == '"') {
+                        int next = read();
+                        if (next == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            c = next;
+                            continue;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\r' || c == '\n' || c == -1) {
+                    if (c == '\r') {
+                        int next = read();
+                        if (next != '\n') {
+                            pending = next;
+                        }
+                    }
+                    fields.add(field.toString());
+                    return fields;
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+
+        private int read() throws IOException {
+            int c;
+            if (pending != -2) {
+                c = pending;
+                pending = -2;
+            } else {
+                c = reader.read();
+            }
+            if (c == '\n') {
+                line++;
+            }
+            return c;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.LostAndFound.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import com.example.LostAndFound.event.ItemEvent;
+
+/**
+ * Publishes {@link ItemEvent}s for writes made by this instance.
+ * With change streams enabled the {@link ChangeStreamListener} publishes every write,
+ * this instance's included, so local publishing is switched off to avoid duplicates.
+ */
+@Component
+public class ItemEventPublisher {
+
+    private final ApplicationEventPublisher publisher;
+    private final boolean changeStreamsEnabled;
+
+    public ItemEventPublisher(ApplicationEventPublisher publisher,
+                              @Value("${app.change-streams.enabled:false}") boolean changeStreamsEnabled) {
+        this.publisher = publisher;
+        this.changeStreamsEnabled = changeStreamsEnabled;
+    }
+
+    public void publishLocal(ItemEvent event) {
+        if (!changeStreamsEnabled) {
+            publisher.publishEvent(event);
+        }
+    }
+}
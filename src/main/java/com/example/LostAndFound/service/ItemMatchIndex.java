@@ -0,0 +1,276 @@
+package com.example.LostAndFound.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.example.LostAndFound.entity.Item;
+
+/**
+ * In-memory inverted index over open items, used to pair lost and found reports.
+ *
+ * Terms are the words of name, type, description and location plus the character trigrams
+ * of every word, so "Wallet (black leather)" still meets "black wallets". Each occurrence
+ * counts with the weight of its field. Candidates sharing at least one term are scored with
+ * BM25 over those weighted counts, plus a bonus for overlapping location words and one that
+ * decays with the days between the two reports.
+ *
+ * Raw scores grow with the size of the index and with trigram-only overlap, so they rank but
+ * do not say whether two reports are the same item. For that a match also carries its text
+ * score relative to the query's score against itself (1.0 = as good as an identical report)
+ * and whether their names share a whole word.
+ *
+ * Only selective terms gather candidates: a term in more than 5% of the items (and more than
+ * a few dozen), like the trigram "ing", would make every query walk most of the index. Such
+ * terms still add to the score of candidates found through the others. When a query has
+ * nothing but common terms, its rarest one gathers the candidates.
+ *
+ * Updates are incremental (one item at a time) and the index is safe for concurrent use.
+ */
+public class ItemMatchIndex {
+
+    // BM25 parameters
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int TYPE_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int LOCATION_WEIGHT = 1;
+
+    // Terms with a document frequency above max(MIN_CANDIDATE_DF, ratio * items) only re-rank
+    private static final double CANDIDATE_DF_RATIO = 0.05;
+    private static final int MIN_CANDIDATE_DF = 32;
+
+    private final double locationBonus;
+    private final double dateBonus;
+    private final double dateDecayDays;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Map<String, Map<String, Integer>> postings = new HashMap<>();    // term -> item id -> weighted count
+    private long totalLength;
+
+    public record Entry(String id, String userId, String itemName, String itemType, String location,
+                        LocalDateTime dateReported, Map<String, Integer> terms, int length, Set<String> locationWords) {}
+
+    // relevance: text score over the query's self-score; sharesWord: the names have a whole word in common
+    public record Match(Entry entry, double score, double relevance, boolean sharesWord) {}
+
+    public ItemMatchIndex() {
+        this(1.0, 1.0, 14);
+    }
+
+    public ItemMatchIndex(double locationBonus, double dateBonus, double dateDecayDays) {
+        this.locationBonus = locationBonus;
+        this.dateBonus = dateBonus;
+        this.dateDecayDays = dateDecayDays;
+    }
+
+    // Adds the item, or replaces what was indexed for the same id
+    public void put(Item item) {
+        Entry entry = entryFor(item);
+        lock.writeLock().lock();
+        try {
+            removeLocked(item.getId());
+            entries.put(entry.id(), entry);
+            entry.terms().forEach((term, count) ->
+                    postings.computeIfAbsent(term, t -> new HashMap<>()).put(entry.id(), count));
+            totalLength += entry.length();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            postings.clear();
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(String id) {
+        Entry old = entries.remove(id);
+        if (old == null) {
+            return;
+        }
+        old.terms().keySet().forEach(term -> {
+            Map<String, Integer> ids = postings.get(term);
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(term);
+            }
+        });
+        totalLength -= old.length();
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Best {@code limit} indexed items for {@code query}, highest score first.
+     * The query item itself is never returned, whether or not it is indexed.
+     */
+    public List<Match> topMatches(Item query, int limit) {
+        Entry probe = entryFor(query);
+        Map<String, Double> textScores = new HashMap<>();
+        PriorityQueue<Match> best = new PriorityQueue<>(Comparator.comparingDouble(Match::score));
+        double selfScore = 0;
+        lock.readLock().lock();
+        try {
+            int documents = entries.size();
+            if (documents == 0 || limit <= 0) {
+                return List.of();
+            }
+            double averageLength = (double) totalLength / documents;
+            double candidateDfLimit = Math.max(MIN_CANDIDATE_DF, CANDIDATE_DF_RATIO * documents);
+            for (Map.Entry<String, Integer> term : probe.terms().entrySet()) {
+                Map<String, Integer> ids = postings.get(term.getKey());
+                selfScore += bm25(idf(documents, ids == null ? 0 : ids.size()), term.getValue(), probe.length(), averageLength);
+            }
+            List<Map<String, Integer>> selective = new ArrayList<>();
+            List<Map<String, Integer>> common = new ArrayList<>();
+            for (String term : probe.terms().keySet()) {
+                Map<String, Integer> ids = postings.get(term);
+                if (ids != null) {
+                    (ids.size() <= candidateDfLimit ? selective : common).add(ids);
+                }
+            }
+            if (selective.isEmpty() && !common.isEmpty()) {
+                Map<String, Integer> rarest = common.stream().min(Comparator.comparingInt(Map::size)).get();
+                common.remove(rarest);
+                selective.add(rarest);
+            }
+            // Candidates: every item sharing a selective term
+            for (Map<String, Integer> ids : selective) {
+                double idf = idf(documents, ids.size());
+                ids.forEach((id, count) -> textScores.merge(id, bm25(idf, count, id, averageLength), Double::sum));
+            }
+            // Common terms: looked up per candidate rather than walked
+            for (Map<String, Integer> ids : common) {
+                double idf = idf(documents, ids.size());
+                textScores.replaceAll((id, score) -> {
+                    Integer count = ids.get(id);
+                    return count == null ? score : score + bm25(idf, count, id, averageLength);
+                });
+            }
+            double querySelfScore = selfScore;
+            textScores.forEach((id, textScore) -> {
+                if (id.equals(probe.id())) {
+                    return;
+                }
+                Entry candidate = entries.get(id);
+                best.add(new Match(candidate, textScore + proximity(probe, candidate),
+                        querySelfScore > 0 ? textScore / querySelfScore : 0, sharesWord(probe, candidate)));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Match> matches = new ArrayList<>(best);
+        matches.sort(Comparator.comparingDouble(Match::score).reversed());
+        return matches;
+    }
+
+    private static double idf(int documents, int documentFrequency) {
+        return Math.log(1 + (documents - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    // Caller holds the read lock
+    private double bm25(double idf, int count, String id, double averageLength) {
+        return bm25(idf, count, entries.get(id).length(), averageLength);
+    }
+
+    private static double bm25(double idf, int count, int length, double averageLength) {
+        double norm = K1 * (1 - B + B * length / averageLength);
+        return idf * count * (K1 + 1) / (count + norm);
+    }
+
+    // Names only: a shared location or description word ("library", "found") says nothing about the item
+    private static boolean sharesWord(Entry a, Entry b) {
+        List<String> other = words(b.itemName());
+        return words(a.itemName()).stream().anyMatch(other::contains);
+    }
+
+    private double proximity(Entry a, Entry b) {
+        double score = 0;
+        if (!a.locationWords().isEmpty() && !b.locationWords().isEmpty()) {
+            Set<String> shared = new HashSet<>(a.locationWords());
+            shared.retainAll(b.locationWords());
+            Set<String> all = new HashSet<>(a.locationWords());
+            all.addAll(b.locationWords());
+            score += locationBonus * shared.size() / all.size();
+        }
+        if (a.dateReported() != null && b.dateReported() != null) {
+            double days = Math.abs(Duration.between(a.dateReported(), b.dateReported()).toHours()) / 24.0;
+            score += dateBonus * Math.exp(-days / dateDecayDays);
+        }
+        return score;
+    }
+
+    // ------------------- Tokenizing -------------------
+    private static Entry entryFor(Item item) {
+        Map<String, Integer> terms = new HashMap<>();
+        addTerms(terms, item.getItemName(), NAME_WEIGHT);
+        addTerms(terms, item.getItemType(), TYPE_WEIGHT);
+        addTerms(terms, item.getDescription(), DESCRIPTION_WEIGHT);
+        addTerms(terms, item.getLocation(), LOCATION_WEIGHT);
+        int length = terms.values().stream().mapToInt(Integer::intValue).sum();
+        return new Entry(item.getId(), item.getUserId(), item.getItemName(), item.getItemType(), item.getLocation(),
+                item.getDateReported(), terms, length, new HashSet<>(words(item.getLocation())));
+    }
+
+    private static void addTerms(Map<String, Integer> terms, String text, int weight) {
+        for (String word : words(text)) {
+            terms.merge("w:" + word, weight, Integer::sum);
+            String padded = "^" + word + "$";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                terms.merge("g:" + padded.substring(i, i + 3), weight, Integer::sum);
+            }
+        }
+    }
+
+    static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (word.length() >= 2) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.LostAndFound.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.example.LostAndFound.dto.ItemMatch;
+import com.example.LostAndFound.entity.Item;
+import com.example.LostAndFound.event.ItemEvent;
+
+/**
+ * Keeps an {@link ItemMatchIndex} of open LOST items and one of open FOUND items, so a report
+ * can be matched against the other side without querying Mongo. The indexes are loaded once
+ * in the background at startup and then kept current from {@link ItemEvent}s, which with change
+ * streams enabled include writes made by other instances.
+ *
+ * A rebuild loads into fresh indexes while the live ones keep serving and taking events.
+ * Events arriving meanwhile are also queued and replayed onto the new indexes once the load
+ * is done, so a stale snapshot row never undoes them, and then the new indexes are swapped in.
+ */
+@Service
+public class ItemMatchingService {
+
+    private static final Logger log = LoggerFactory.getLogger(ItemMatchingService.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final int topK;
+    private final double notifyMinRelevance;
+    private final double locationBonus;
+    private final double dateBonus;
+    private final double dateDecayDays;
+    private volatile ItemMatchIndex lostItems;
+    private volatile ItemMatchIndex foundItems;
+    private volatile boolean ready;
+
+    // An item to (re)index, or the id of one removed
+    private record Change(Item item, String removedId) {}
+
+    private final Object changesLock = new Object();
+    private List<Change> changesDuringRebuild;     // non-null while a rebuild runs; guarded by changesLock
+
+    public ItemMatchingService(MongoTemplate mongoTemplate,
+                               @Value("${app.matching.enabled:true}") boolean enabled,
+                               @Value("${app.matching.top-k:10}") int topK,
+                               @Value("${app.matching.notify-min-relevance:0.35}") double notifyMinRelevance,
+                               @Value("${app.matching.location-bonus:1.0}") double locationBonus,
+                               @Value("${app.matching.date-bonus:1.0}") double dateBonus,
+                               @Value("${app.matching.date-decay-days:14}") double dateDecayDays) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.topK = topK;
+        this.notifyMinRelevance = notifyMinRelevance;
+        this.locationBonus = locationBonus;
+        this.dateBonus = dateBonus;
+        this.dateDecayDays = dateDecayDays;
+        this.lostItems = newIndex();
+        this.foundItems = newIndex();
+    }
+
+    private ItemMatchIndex newIndex() {
+        return new ItemMatchIndex(locationBonus, dateBonus, dateDecayDays);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        Thread.ofPlatform().name("match-index-load").daemon().start(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.warn("Match index not loaded, falling back to exact name matching: {}", e.getMessage());
+            }
+        });
+    }
+
+    // synchronized: one rebuild at a time
+    public synchronized void rebuild() {
+        Query open = Query.query(Criteria.where("status").in(Item.ItemStatus.LOST, Item.ItemStatus.FOUND));
+        open.fields().include("userId", "itemName", "itemType", "description", "location", "status", "dateReported");
+        long startedAt = System.nanoTime();
+        // Callers fall back to exact name matching until the new indexes are in
+        ready = false;
+        synchronized (changesLock) {
+            changesDuringRebuild = new ArrayList<>();
+        }
+        ItemMatchIndex newLostItems = newIndex();
+        ItemMatchIndex newFoundItems = newIndex();
+        try {
+            try (Stream<Item> items = mongoTemplate.stream(open, Item.class)) {
+                items.forEach(item -> apply(newLostItems, newFoundItems, new Change(item, null)));
+            }
+            synchronized (changesLock) {
+                changesDuringRebuild.forEach(change -> apply(newLostItems, newFoundItems, change));
+                lostItems = newLostItems;
+                foundItems = newFoundItems;
+            }
+            ready = true;
+        } finally {
+            synchronized (changesLock) {
+                changesDuringRebuild = null;
+            }
+        }
+        log.info("Match index loaded: {} lost, {} found items in {} ms", newLostItems.size(), newFoundItems.size(),
+                (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    // false until a load has finished, while a rebuild runs, and when matching is disabled
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void itemChanged(Item item) {
+        if (!enabled || item.getId() == null) {
+            return;
+        }
+        record(new Change(item, null));
+    }
+
+    public void itemRemoved(String id) {
+        record(new Change(null, id));
+    }
+
+    private void record(Change change) {
+        synchronized (changesLock) {
+            apply(lostItems, foundItems, change);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        }
+    }
+
+    private static void apply(ItemMatchIndex lost, ItemMatchIndex found, Change change) {
+        if (change.item() == null) {
+            lost.remove(change.removedId());
+            found.remove(change.removedId());
+            return;
+        }
+        // Only open items are matchable; anything else (e.g. CLAIMED) drops out
+        Item item = change.item();
+        lost.remove(item.getId());
+        found.remove(item.getId());
+        if (item.getStatus() == Item.ItemStatus.LOST) {
+            lost.put(item);
+        } else if (item.getStatus() == Item.ItemStatus.FOUND) {
+            found.put(item);
+        }
+    }
+
+    @EventListener
+    public void onItemEvent(ItemEvent event) {
+        switch (event) {
+            case ItemEvent.Created created -> itemChanged(created.item());
+            case ItemEvent.StatusChanged changed -> itemChanged(changed.item());
+            case ItemEvent.Updated updated -> itemChanged(updated.item());
+            case ItemEvent.Deleted deleted -> itemRemoved(deleted.itemId());
+            case ItemEvent.Resync resync -> {
+                if (enabled) {
+                    rebuild();
+                }
+            }
+        }
+    }
+
+    // FOUND items for a LOST one and the other way round, best first
+    public List<ItemMatch> findMatches(Item item, Integer limit) {
+        int k = limit == null ? topK : Math.max(1, Math.min(limit, 100));
+        Item.ItemStatus otherStatus = item.getStatus() == Item.ItemStatus.LOST ? Item.ItemStatus.FOUND
+                : item.getStatus() == Item.ItemStatus.FOUND ? Item.ItemStatus.LOST
+                : null;
+        if (otherStatus == null) {
+            return List.of();
+        }
+        ItemMatchIndex otherSide = otherStatus == Item.ItemStatus.LOST ? lostItems : foundItems;
+        return otherSide.topMatches(item, k).stream()
+                .map(match -> new ItemMatch(match.entry().id(), match.entry().userId(), match.entry().itemName(),
+                        match.entry().itemType(), match.entry().location(), otherStatus,
+                        match.entry().dateReported(), match.score()))
+                .toList();
+    }
+
+    // LOST items whose owners should hear about this FOUND item: top-K sharing a name word and
+    // scoring at least notify-min-relevance of the FOUND report's score against itself
+    public List<ItemMatchIndex.Match> lostItemsToNotify(Item foundItem) {
+        return lostItems.topMatches(foundItem, topK).stream()
+                .filter(match -> match.sharesWord() && match.relevance() >= notifyMinRelevance)
+                .toList();
+    }
+}
@@ -1,35 +1,135 @@
 package com.example.LostAndFound.service;
 
-import java.awt.Graphics2D;
-import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
-import java.util.Base64;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
-import javax.imageio.ImageIO;
+import java.util.stream.Stream;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.example.LostAndFound.dto.DashboardResponse;
+import com.example.LostAndFound.dto.ItemCursor;
 import com.example.LostAndFound.dto.ItemDto;
+import com.example.LostAndFound.dto.ItemMatch;
+import com.example.LostAndFound.dto.ItemPage;
+import com.example.LostAndFound.dto.ItemSearchQuery;
+import com.example.LostAndFound.dto.ItemSummary;
+import com.example.LostAndFound.dto.SearchResponse;
+import com.example.LostAndFound.dto.UserDashboard;
 import com.example.LostAndFound.entity.Item;
-import com.example.LostAndFound.entity.User;
+import com.example.LostAndFound.event.ItemEvent;
+import com.example.LostAndFound.repository.ImageStore;
 import com.example.LostAndFound.repository.ItemRepository;
+import com.example.LostAndFound.repository.StoredImage;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 
 @Service
 public class ItemService {
     private final ItemRepository itemRepository;
-    private final UserService userService;
-    private final NotificationService notificationService; // ✅ Inject NotificationService
+    private final ImageStore imageStore;
+    private final ImageProcessingService imageProcessingService;
+    private final ItemMatchingService itemMatchingService;
+    private final ItemEventPublisher itemEventPublisher;
+    private final ObjectMapper objectMapper;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int legacyListLimit;
+    private final int dashboardRecentItems;
+    private final int cursorBatchSize;
 
     // Constructor injection
     public ItemService(ItemRepository itemRepository,
-                       UserService userService,
-                       NotificationService notificationService) {
+                       ImageStore imageStore,
+                       ImageProcessingService imageProcessingService,
+                       ItemMatchingService itemMatchingService,
+                       ItemEventPublisher itemEventPublisher,
+                       ObjectMapper objectMapper,
+                       @Value("${app.items.page.default-size:20}") int defaultPageSize,
+                       @Value("${app.items.page.max-size:100}") int maxPageSize,
+                       @Value("${app.items.legacy-list.max-results:200}") int legacyListLimit,
+                       @Value("${app.dashboard.recent-items:5}") int dashboardRecentItems,
+                       @Value("${app.items.ndjson.cursor-batch-size:200}") int cursorBatchSize) {
         this.itemRepository = itemRepository;
-        this.userService = userService;
-        this.notificationService = notificationService;
+        this.imageStore = imageStore;
+        this.imageProcessingService = imageProcessingService;
+        this.itemMatchingService = itemMatchingService;
+        this.itemEventPublisher = itemEventPublisher;
+        this.objectMapper = objectMapper;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.legacyListLimit = legacyListLimit;
+        this.dashboardRecentItems = dashboardRecentItems;
+        this.cursorBatchSize = cursorBatchSize;
+    }
+
+    // ------------------- Paged listing -------------------
+    // status and cursor are optional; throws IllegalArgumentException for a malformed cursor
+    public ItemPage getItemPage(Item.ItemStatus status, String cursor, Integer limit) {
+        int pageSize = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+        ItemCursor after = (cursor == null || cursor.isBlank()) ? null : ItemCursor.decode(cursor);
+        return fetchPage(status, after, pageSize);
+    }
+
+    // Backs the old /lost, /found, /claimed and /all endpoints, which are capped instead of unbounded
+    public ItemPage getLegacyItemList(Item.ItemStatus status) {
+        return fetchPage(status, null, legacyListLimit);
+    }
+
+    private ItemPage fetchPage(Item.ItemStatus status, ItemCursor after, int pageSize) {
+        // Read one extra row to know whether another page exists
+        List<ItemSummary> items = itemRepository.findPage(status, after, pageSize + 1);
+        if (items.size() <= pageSize) {
+            return new ItemPage(items, null);
+        }
+        items = items.subList(0, pageSize);
+        ItemSummary last = items.get(pageSize - 1);
+        return new ItemPage(items, new ItemCursor(last.getDateReported(), last.getId()).encode());
+    }
+
+    // ------------------- Search -------------------
+    public SearchResponse search(ItemSearchQuery query, Integer page, Integer size) {
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        int pageNumber = page == null ? 0 : Math.max(0, page);
+        List<ItemSummary> items = itemRepository.search(query, (long) pageNumber * pageSize, pageSize + 1);
+        boolean hasMore = items.size() > pageSize;
+        if (hasMore) {
+            items = items.subList(0, pageSize);
+        }
+        return new SearchResponse(items, pageNumber, pageSize, hasMore);
+    }
+
+    // ------------------- Streamed (NDJSON) lists -------------------
+    // Every match, uncapped: each summary is written to out as it comes off the cursor, so memory
+    // stays at one cursor batch however many there are, and a slow client slows the cursor down
+    public void writeItems(Item.ItemStatus status, OutputStream out) throws IOException {
+        writeNdjson(itemRepository.streamSummaries(status, cursorBatchSize), out);
+    }
+
+    public void writeSearchResults(ItemSearchQuery query, OutputStream out) throws IOException {
+        writeNdjson(itemRepository.streamSearch(query, cursorBatchSize), out);
+    }
+
+    // One line per summary; flushed once per cursor batch rather than after every value
+    private void writeNdjson(Stream<ItemSummary> items, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (items; JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            int written = 0;
+            for (ItemSummary item : (Iterable<ItemSummary>) items::iterator) {
+                writer.writeValue(generator, item);
+                generator.writeRaw('\n');
+                if (++written % cursorBatchSize == 0) {
+                    generator.flush();
+                }
+            }
+        }
     }
 
     // ------------------- Get item by ID -------------------
@@ -38,115 +138,123 @@ public class ItemService {
         return itemOpt.orElse(null); // Return null if not found
     }
 
+    // ------------------- Item image -------------------
+    public Optional<StoredImage> getItemImage(String id, Item.ImageRendition rendition) {
+        return itemRepository.findImageById(id).flatMap(item -> {
+            if (item.getImageRenditions() != null && item.getImageRenditions().containsKey(rendition.key())) {
+                return imageStore.load(item.getImageRenditions().get(rendition.key()));
+            }
+            // Uploaded before renditions existed: one image serves every size
+            if (item.getImageId() != null) {
+                return imageStore.load(item.getImageId());
+            }
+            // Not migrated yet: still embedded in the document
+            return Optional.ofNullable(item.getItemImage()).map(StoredImage::fromBytes);
+        });
+    }
+
+    // Saves the item as PENDING and hands the image to the async pipeline.
+    // Throws RejectedExecutionException, before saving anything, when the pipeline is full.
+    public Item saveWithPendingImage(Item item, ImageProcessingService.ImageSource image) {
+        if (!imageProcessingService.tryAcquireSlot()) {
+            throw new RejectedExecutionException("Image processing is busy, please retry shortly");
+        }
+        Item saved;
+        try {
+            item.setImageStatus(Item.ImageStatus.PENDING);
+            flagForNotifications(item, null);
+            saved = itemRepository.save(item);
+        } catch (RuntimeException e) {
+            imageProcessingService.releaseSlot();
+            throw e;
+        }
+        imageProcessingService.submit(saved.getId(), image);
+        itemEventPublisher.publishLocal(new ItemEvent.Created(saved));
+        return saved;
+    }
+
     // ------------------- Save item -------------------
     public Item saveItem(Item item) {
         if (item.getId() == null || item.getId().trim().isEmpty()) {
             item.setId(null); // Let MongoDB generate _id
         }
+        boolean created = item.getId() == null;
+        flagForNotifications(item, created ? null : itemRepository.findStatusById(item.getId()).orElse(null));
+        Item saved = itemRepository.save(item);
+        itemEventPublisher.publishLocal(created ? new ItemEvent.Created(saved) : new ItemEvent.Updated(saved));
+        return saved;
+    }
 
-        // Save item first
-        Item savedItem = itemRepository.save(item);
-
-        // ✅ If it's a FOUND item, check for matching LOST items and notify owners
-        if (savedItem.getStatus() == Item.ItemStatus.FOUND) {
-            notifyLostItemOwners(savedItem);
-        }
-
-        return savedItem;
-    }
-
-    // ------------------- Notify lost item owners -------------------
-    private void notifyLostItemOwners(Item foundItem) {
-        // Find lost items with same type/name (you can enhance matching logic)
-        List<Item> lostItems = itemRepository.findByItemNameIgnoreCase(foundItem.getItemName());
-
-        for (Item lostItem : lostItems) {
-            if (lostItem.getStatus() == Item.ItemStatus.LOST) {
-                Optional<User> userOpt = userService.getUserById(lostItem.getUserId());
-                if (userOpt.isPresent()) {
-                    User lostOwner = userOpt.get();
-                    String subject = "A similar item has been found!";
-                    String body = "Hi " + lostOwner.getFirstName() + ",\n\n"
-                            + "We noticed that you reported a lost item: " + lostItem.getItemName() + ".\n"
-                            + "Good news! A similar item was just reported as FOUND.\n\n"
-                            + "Item details:\n"
-                            + "- Name: " + foundItem.getItemName() + "\n"
-                            + "- Type: " + foundItem.getItemType() + "\n"
-                            + "- Reported on: " + foundItem.getDateReported() + "\n\n"
-                            + "Please log in to the Lost & Found portal to check it out.\n\n"
-                            + "Best regards,\nLost & Found Team";
-
-                    // Send email
-                    notificationService.sendEmail(lostOwner.getEmail(), subject, body);
-                }
-            }
+    // ✅ A FOUND item notifies owners of matching LOST items, via the outbox (NotificationDispatcher).
+    // Only when it becomes FOUND (reported, or changed from another status): editing a FOUND item
+    // must not re-run matching and mail owners it was never matched to. previous is null on create.
+    private void flagForNotifications(Item item, Item previous) {
+        if (previous != null && Boolean.TRUE.equals(previous.getNotificationsPending())) {
+            item.setNotificationsPending(true);     // not dispatched yet; a full save must not clear it
+        } else if (item.getStatus() == Item.ItemStatus.FOUND
+                && (previous == null || previous.getStatus() != Item.ItemStatus.FOUND)) {
+            item.setNotificationsPending(true);
+        } else {
+            item.setNotificationsPending(null);
         }
     }
 
-    // ------------------- Claim item -------------------
-    public boolean claimItem(String id) {
-        Optional<Item> itemOpt = itemRepository.findById(id);
-        if (itemOpt.isPresent()) {
-            Item item = itemOpt.get();
-            if (item.getStatus() != Item.ItemStatus.CLAIMED) {
-                item.setStatus(Item.ItemStatus.CLAIMED);
-                itemRepository.save(item);
-                return true;
-            }
+    // ------------------- Matches -------------------
+    // Empty when the item does not exist; throws IllegalStateException while the match index is loading
+    public Optional<List<ItemMatch>> getMatches(String id, Integer limit) {
+        if (!itemMatchingService.isReady()) {
+            throw new IllegalStateException("Match index is still loading, please retry shortly");
         }
-        return false;
+        return itemRepository.findById(id).map(item -> itemMatchingService.findMatches(item, limit));
     }
 
-    // ------------------- Image compression utility -------------------
-    public static byte[] compressImage(String base64Image, int width, int height) throws Exception {
-        byte[] imageBytes = Base64.getDecoder().decode(base64Image);
-        BufferedImage originalImage = ImageIO.read(new java.io.ByteArrayInputStream(imageBytes));
-
-        BufferedImage resizedImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-        Graphics2D g = resizedImage.createGraphics();
-        g.drawImage(originalImage, 0, 0, width, height, null);
-        g.dispose();
+    // ------------------- Claim item -------------------
+    public enum ClaimResult { CLAIMED, ALREADY_CLAIMED, NOT_FOUND }
 
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        ImageIO.write(resizedImage, "jpg", baos);
-        return baos.toByteArray();
+    // One conditional write: the document (and its image) is never read back and rewritten whole
+    public ClaimResult claimItem(String id, String claimantUserId) {
+        Optional<Item> before = itemRepository.claim(id, claimantUserId);
+        if (before.isEmpty()) {
+            // Lost the race or never existed; only the failure path pays for this lookup
+            return itemRepository.existsById(id) ? ClaimResult.ALREADY_CLAIMED : ClaimResult.NOT_FOUND;
+        }
+        Item item = before.get();
+        Item.ItemStatus previousStatus = item.getStatus();
+        item.setStatus(Item.ItemStatus.CLAIMED);
+        item.setClaimedBy(claimantUserId != null ? claimantUserId : item.getClaimedBy());
+        itemEventPublisher.publishLocal(new ItemEvent.StatusChanged(item, previousStatus));
+        return ClaimResult.CLAIMED;
     }
 
     // ------------------- Dashboard Data -------------------
     public DashboardResponse getDashboardData(String userId) {
         DashboardResponse response = new DashboardResponse();
+        response.setFullName("Unknown User");
+        response.setRecentItems(List.of());
 
-        long lostCount = itemRepository.countByUserIdAndStatus(userId, Item.ItemStatus.LOST);
-        long foundCount = itemRepository.countByUserIdAndStatus(userId, Item.ItemStatus.FOUND);
-        long claimedCount = itemRepository.countByUserIdAndStatus(userId, Item.ItemStatus.CLAIMED);
-
-        response.setLostCount(lostCount);
-        response.setFoundCount(foundCount);
-        response.setClaimedCount(claimedCount);
-
-        List<Item> recentItemsList = itemRepository.findTop5ByUserIdOrderByDateReportedDesc(userId);
-
-        List<ItemDto> recentItemsDto = recentItemsList.stream()
-                .map(item -> new ItemDto(
-                        item.getId(),
-                        item.getItemName(),
-                        item.getItemType() != null ? item.getItemType() : "",
-                        item.getDateReported() != null ? item.getDateReported().toString() : "",
-                        item.getStatus() != null ? item.getStatus().name() : ""
-                ))
-                .collect(Collectors.toList());
-
-        response.setRecentItems(recentItemsDto);
-
-        String fullName = "Unknown User";
-        if (!recentItemsList.isEmpty()) {
-            String reporterId = recentItemsList.get(0).getUserId();
-            Optional<User> userOpt = userService.getUserById(reporterId);
-            if (userOpt.isPresent()) {
-                fullName = userOpt.get().getFirstName() + " " + userOpt.get().getLastName();
+        itemRepository.findDashboard(userId, dashboardRecentItems).ifPresent(dashboard -> {
+            response.setFullName(dashboard.firstName() + " " + dashboard.lastName());
+            for (UserDashboard.StatusCount statusCount : dashboard.statusCounts()) {
+                if (statusCount.id() == null) {
+                    continue;
+                }
+                switch (statusCount.id()) {
+                    case LOST -> response.setLostCount(statusCount.count());
+                    case FOUND -> response.setFoundCount(statusCount.count());
+                    case CLAIMED -> response.setClaimedCount(statusCount.count());
+                    case RETURNED -> response.setReturnedCount(statusCount.count());
+                }
             }
-        }
-        response.setFullName(fullName);
+            response.setRecentItems(dashboard.recentItems().stream()
+                    .map(item -> new ItemDto(
+                            item.getId(),
+                            item.getItemName(),
+                            item.getItemType() != null ? item.getItemType() : "",
+                            item.getDateReported() != null ? item.getDateReported().toString() : "",
+                            item.getStatus() != null ? item.getStatus().name() : ""
+                    ))
+                    .collect(Collectors.toList()));
+        });
 
         return response;
     }
@@ -0,0 +1,165 @@
+package com.example.LostAndFound.service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.LostAndFound.dto.ItemStats;
+import com.example.LostAndFound.entity.Item;
+import com.example.LostAndFound.event.ItemEvent;
+import com.example.LostAndFound.repository.ItemRepository;
+
+/**
+ * Item counts per status, served from memory.
+ *
+ * Seeded from one $group aggregation once the app is up, then moved by {@link ItemEvent}s.
+ * Events that don't say what the status was before (a delete, a replace from another
+ * instance) mark the counters dirty instead, and the next reconcile run recounts. A full
+ * reconcile also runs every app.items.stats.reconcile-interval-ms to correct any drift.
+ *
+ * A recount overwrites the counters with its snapshot, so an increment applied while the
+ * aggregation runs may or may not be in it. Such increments mark the counters dirty, and
+ * the next dirty check counts again.
+ */
+@Service
+public class ItemStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(ItemStatsService.class);
+
+    private final ItemRepository itemRepository;
+    private final Map<Item.ItemStatus, AtomicLong> counts = new EnumMap<>(Item.ItemStatus.class);
+    private final AtomicBoolean dirty = new AtomicBoolean(true);
+    // Event updates share the read side; a recount takes the write side to start and to finish
+    private final ReadWriteLock recountLock = new ReentrantReadWriteLock();
+    private boolean recounting;     // guarded by recountLock
+    private volatile boolean seeded;
+
+    public ItemStatsService(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+        for (Item.ItemStatus status : Item.ItemStatus.values()) {
+            counts.put(status, new AtomicLong());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedOnStartup() {
+        Thread.ofPlatform().name("item-stats-seed").daemon().start(this::reconcileQuietly);
+    }
+
+    // Recounts soon after an event the counters could not apply
+    @Scheduled(fixedDelayString = "${app.items.stats.dirty-check-ms:5000}")
+    public void reconcileIfDirty() {
+        if (dirty.get()) {
+            reconcileQuietly();
+        }
+    }
+
+    // ...and every reconcile interval regardless, to correct any drift
+    @Scheduled(initialDelayString = "${app.items.stats.reconcile-interval-ms:300000}",
+               fixedDelayString = "${app.items.stats.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        dirty.set(true);
+        reconcileQuietly();
+    }
+
+    // synchronized: one recount at a time, or one finishing would end the other's window
+    private synchronized void reconcileQuietly() {
+        recountLock.writeLock().lock();
+        try {
+            // From here until the counters are replaced, every event update marks them dirty again
+            recounting = true;
+            dirty.set(false);
+        } finally {
+            recountLock.writeLock().unlock();
+        }
+        Map<Item.ItemStatus, Long> actual = null;
+        try {
+            actual = itemRepository.countByStatus();
+        } catch (RuntimeException e) {
+            dirty.set(true);
+            log.warn("Could not count items: {}", e.getMessage());
+        }
+        recountLock.writeLock().lock();
+        try {
+            recounting = false;
+            if (actual != null) {
+                replaceCounts(actual);
+            }
+        } finally {
+            recountLock.writeLock().unlock();
+        }
+    }
+
+    private void replaceCounts(Map<Item.ItemStatus, Long> actual) {
+        counts.forEach((status, counter) -> {
+            long expected = actual.getOrDefault(status, 0L);
+            long previous = counter.getAndSet(expected);
+            if (seeded && previous != expected) {
+                log.debug("Item count for {} corrected from {} to {}", status, previous, expected);
+            }
+        });
+        seeded = true;
+    }
+
+    @EventListener
+    public void onItemEvent(ItemEvent event) {
+        switch (event) {
+            case ItemEvent.Created created -> increment(created.item().getStatus());
+            case ItemEvent.StatusChanged changed -> {
+                if (changed.previousStatus() == null) {
+                    dirty.set(true);
+                } else {
+                    decrement(changed.previousStatus());
+                    increment(changed.item().getStatus());
+                }
+            }
+            // No previous state to diff against
+            case ItemEvent.Updated updated -> dirty.set(true);
+            case ItemEvent.Deleted deleted -> dirty.set(true);
+            case ItemEvent.Resync resync -> dirty.set(true);
+        }
+    }
+
+    private void increment(Item.ItemStatus status) {
+        if (status != null) {
+            add(status, 1);
+        }
+    }
+
+    private void decrement(Item.ItemStatus status) {
+        add(status, -1);
+    }
+
+    private void add(Item.ItemStatus status, long delta) {
+        recountLock.readLock().lock();
+        try {
+            counts.get(status).addAndGet(delta);
+            if (recounting) {
+                dirty.set(true);    // may be lost when the recount's snapshot replaces the counters
+            }
+        } finally {
+            recountLock.readLock().unlock();
+        }
+    }
+
+    // null until the first count has come back from Mongo
+    public ItemStats getStats() {
+        if (!seeded) {
+            return null;
+        }
+        return new ItemStats(counts.get(Item.ItemStatus.LOST).get(),
+                counts.get(Item.ItemStatus.FOUND).get(),
+                counts.get(Item.ItemStatus.CLAIMED).get(),
+                counts.get(Item.ItemStatus.RETURNED).get());
+    }
+}
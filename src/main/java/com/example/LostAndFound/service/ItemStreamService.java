@@ -0,0 +1,207 @@
+package com.example.LostAndFound.service;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.LostAndFound.dto.ItemDelta;
+import com.example.LostAndFound.dto.ItemSummary;
+import com.example.LostAndFound.entity.Item;
+import com.example.LostAndFound.event.ItemEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Pushes item changes to browsers over Server-Sent Events, so open lists stay current
+ * without re-fetching.
+ *
+ * An idle subscriber costs an async request (no container thread) and one parked virtual
+ * thread that drains its bounded queue. Each delta is serialized once, then offered to every
+ * matching subscriber. A subscriber whose queue is full is too slow to keep up and is
+ * disconnected; EventSource reconnects on its own and the page reloads its list then.
+ * The same thread sends a heartbeat whenever a stream has been quiet for heartbeat-ms.
+ */
+@Service
+public class ItemStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(ItemStreamService.class);
+
+    public static final String CREATED = "item-created";
+    public static final String CLAIMED = "item-claimed";
+    public static final String STATUS_CHANGED = "item-status-changed";
+    public static final String UPDATED = "item-updated";
+    public static final String DELETED = "item-deleted";
+    public static final String RESYNC = "resync";
+
+    private final ObjectMapper objectMapper;
+    private final int maxSubscribers;
+    private final int queueCapacity;
+    private final long timeoutMs;
+    private final long reconnectMs;
+    private final long heartbeatMs;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    public ItemStreamService(ObjectMapper objectMapper,
+                             @Value("${app.items.stream.max-subscribers:10000}") int maxSubscribers,
+                             @Value("${app.items.stream.queue-capacity:32}") int queueCapacity,
+                             @Value("${app.items.stream.timeout-ms:1800000}") long timeoutMs,
+                             @Value("${app.items.stream.reconnect-ms:3000}") long reconnectMs,
+                             @Value("${app.items.stream.heartbeat-ms:20000}") long heartbeatMs) {
+        this.objectMapper = objectMapper;
+        this.maxSubscribers = maxSubscribers;
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.timeoutMs = timeoutMs;
+        this.reconnectMs = reconnectMs;
+        this.heartbeatMs = heartbeatMs;
+    }
+
+    /**
+     * A new stream of deltas for items whose status is in {@code statuses} (before or after the
+     * change) and whose itemType is in {@code itemTypes}; an empty set means any.
+     * Throws IllegalStateException when the node already has max-subscribers streams open.
+     */
+    public SseEmitter subscribe(Set<Item.ItemStatus> statuses, Set<String> itemTypes) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new IllegalStateException("Too many open item streams, please retry shortly");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, statuses,
+                itemTypes.stream().map(type -> type.toLowerCase(Locale.ROOT)).collect(Collectors.toSet()));
+        subscribers.add(subscriber);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        // First message: tells EventSource how soon to reconnect, and flushes the response headers
+        subscriber.offer(SseEmitter.event().comment("connected").reconnectTime(reconnectMs));
+        subscriber.sender = Thread.ofVirtual().name("item-stream").start(subscriber::drain);
+        if (subscriber.closed) {
+            subscriber.sender.interrupt();     // closed before the sender was set
+        }
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @EventListener
+    public void onItemEvent(ItemEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        switch (event) {
+            case ItemEvent.Created created -> publish(CREATED, created.item(), null);
+            case ItemEvent.StatusChanged changed -> publish(
+                    changed.item().getStatus() == Item.ItemStatus.CLAIMED ? CLAIMED : STATUS_CHANGED,
+                    changed.item(), changed.previousStatus());
+            case ItemEvent.Updated updated -> publish(UPDATED, updated.item(), null);
+            case ItemEvent.Deleted deleted -> broadcast(DELETED, new ItemDelta(deleted.itemId(), null, null), null);
+            case ItemEvent.Resync resync -> broadcast(RESYNC, new ItemDelta(null, null, null), null);
+        }
+    }
+
+    private void publish(String name, Item item, Item.ItemStatus previousStatus) {
+        broadcast(name, new ItemDelta(item.getId(), summaryOf(item), previousStatus), subscriber ->
+                subscriber.wants(item.getStatus(), item.getItemType())
+                        || (previousStatus != null && subscriber.wants(previousStatus, item.getItemType())));
+    }
+
+    private void broadcast(String name, ItemDelta delta, Predicate<Subscriber> filter) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(delta);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize {} for item {}: {}", name, delta.id(), e.getMessage());
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            if (filter == null || filter.test(subscriber)) {
+                subscriber.offer(SseEmitter.event().name(name).data(json));
+            }
+        }
+    }
+
+    // Same shape as the list endpoints return, so the page can drop it straight into its list
+    private static ItemSummary summaryOf(Item item) {
+        ItemSummary summary = new ItemSummary();
+        summary.setId(item.getId());
+        summary.setUserId(item.getUserId());
+        summary.setItemName(item.getItemName());
+        summary.setItemType(item.getItemType());
+        summary.setDescription(item.getDescription());
+        summary.setLocation(item.getLocation());
+        summary.setStatus(item.getStatus());
+        summary.setDateReported(item.getDateReported());
+        summary.setImageStatus(item.getImageStatus());
+        summary.setHasImage(item.getImageId() != null || item.getImageRenditions() != null
+                || item.getImageStatus() == Item.ImageStatus.PENDING);
+        return summary;
+    }
+
+    // ------------------- Subscriber -------------------
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Set<Item.ItemStatus> statuses;
+        private final Set<String> itemTypes;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private volatile Thread sender;
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, Set<Item.ItemStatus> statuses, Set<String> itemTypes) {
+            this.emitter = emitter;
+            this.statuses = statuses.isEmpty() ? EnumSet.allOf(Item.ItemStatus.class) : EnumSet.copyOf(statuses);
+            this.itemTypes = itemTypes;
+        }
+
+        boolean wants(Item.ItemStatus status, String itemType) {
+            return status != null && statuses.contains(status)
+                    && (itemTypes.isEmpty() || (itemType != null && itemTypes.contains(itemType.toLowerCase(Locale.ROOT))));
+        }
+
+        void offer(SseEmitter.SseEventBuilder event) {
+            if (!closed && !queue.offer(event)) {
+                log.debug("Item stream subscriber fell {} events behind, disconnecting", queueCapacity);
+                close();
+                emitter.complete();
+            }
+        }
+
+        void drain() {
+            try {
+                while (!closed) {
+                    // Nothing to send for heartbeat-ms: send a comment so proxies keep the connection
+                    SseEmitter.SseEventBuilder event = queue.poll(heartbeatMs, TimeUnit.MILLISECONDS);
+                    emitter.send(event != null ? event : SseEmitter.event().comment("ping"));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; the container reports it through onError/onCompletion too
+                close();
+            }
+        }
+
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+            Thread thread = sender;
+            if (thread != null) {
+                thread.interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.LostAndFound.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
+
+import javax.crypto.SecretKey;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.LostAndFound.entity.User;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Issues and verifies the short-lived access tokens (HS256). The key is decoded and the parser
+ * built once, so verifying a token is just a signature check over what the request carries;
+ * the claims are all an authenticated request needs to know about its user.
+ */
+@Service
+public class JwtService {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtService.class);
+
+    // What a verified access token says about its user
+    public record TokenUser(String userId, String username, User.UserType userType) {}
+
+    private final SecretKey key;
+    private final JwtParser parser;
+    private final Duration accessTokenTtl;
+
+    public JwtService(@Value("${app.security.jwt.secret:}") String secret,
+                      @Value("${app.security.jwt.access-token-ttl-seconds:900}") long accessTokenTtlSeconds) {
+        if (secret.isBlank()) {
+            log.warn("app.security.jwt.secret is not set: using a random key, tokens end with this process");
+            this.key = Jwts.SIG.HS256.key().build();
+        } else {
+            this.key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        }
+        this.parser = Jwts.parser().verifyWith(key).build();
+        this.accessTokenTtl = Duration.ofSeconds(accessTokenTtlSeconds);
+    }
+
+    public String issueAccessToken(User user) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+                .subject(user.getUserId())
+                .claim("username", user.getUsername())
+                .claim("userType", user.getUserType() == null ? User.UserType.User.name() : user.getUserType().name())
+                .issuedAt(Date.from(now))
+                .expiration(Date.from(now.plus(accessTokenTtl)))
+                .signWith(key)
+                .compact();
+    }
+
+    // Empty for a bad signature, an expired token or anything malformed
+    public Optional<TokenUser> parseAccessToken(String token) {
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            return Optional.of(new TokenUser(claims.getSubject(), claims.get("username", String.class),
+                    User.UserType.valueOf(claims.get("userType", String.class))));
+        } catch (JwtException | IllegalArgumentException | NullPointerException e) {
+            return Optional.empty();
+        }
+    }
+
+    public Duration getAccessTokenTtl() {
+        return accessTokenTtl;
+    }
+}
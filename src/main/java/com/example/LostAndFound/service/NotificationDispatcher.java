@@ -0,0 +1,283 @@
+package com.example.LostAndFound.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.LostAndFound.entity.Item;
+import com.example.LostAndFound.entity.Notification;
+import com.example.LostAndFound.entity.Notification.NotificationStatus;
+import com.example.LostAndFound.entity.User;
+import com.example.LostAndFound.repository.ItemRepository;
+
+/**
+ * Background side of the notification outbox.
+ *
+ * A FOUND report only sets notificationsPending on the item, in the same single-document
+ * write that saves it, so reporting never waits on SMTP. Each run of the dispatcher then
+ * 1. turns flagged items into one notifications document per owner of a matching LOST item, and
+ * 2. sends due notifications in batches, retrying failures with exponential backoff until
+ *    max-attempts, after which they stay DEAD for someone to look at.
+ * Both steps are safe to repeat after a crash: notification ids are derived from the match,
+ * and a notification is claimed with a lease so a stuck SENDING entry is picked up again.
+ */
+@Service
+public class NotificationDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationDispatcher.class);
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+    private final ItemRepository itemRepository;
+    private final UserService userService;
+    private final NotificationService notificationService;
+    private final ItemMatchingService itemMatchingService;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+
+    public NotificationDispatcher(MongoTemplate mongoTemplate,
+                                  ItemRepository itemRepository,
+                                  UserService userService,
+                                  NotificationService notificationService,
+                                  ItemMatchingService itemMatchingService,
+                                  @Value("${app.notifications.dispatcher.enabled:true}") boolean enabled,
+                                  @Value("${app.notifications.batch-size:50}") int batchSize,
+                                  @Value("${app.notifications.max-attempts:6}") int maxAttempts,
+                                  @Value("${app.notifications.initial-backoff-ms:30000}") long initialBackoffMs,
+                                  @Value("${app.notifications.max-backoff-ms:3600000}") long maxBackoffMs,
+                                  @Value("${app.notifications.lease-ms:120000}") long leaseMs) {
+        this.mongoTemplate = mongoTemplate;
+        this.itemRepository = itemRepository;
+        this.userService = userService;
+        this.notificationService = notificationService;
+        this.itemMatchingService = itemMatchingService;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = Duration.ofMillis(initialBackoffMs);
+        this.maxBackoff = Duration.ofMillis(maxBackoffMs);
+        this.lease = Duration.ofMillis(leaseMs);
+    }
+
+    @Scheduled(initialDelayString = "${app.notifications.dispatch-interval-ms:5000}",
+               fixedDelayString = "${app.notifications.dispatch-interval-ms:5000}")
+    public void dispatch() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int queued = enqueuePendingItems();
+            int sent = sendDueNotifications();
+            if (queued > 0 || sent > 0) {
+                log.info("Notification outbox: {} queued, {} sent", queued, sent);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Notification dispatch failed, will retry next run: {}", e.getMessage());
+        }
+    }
+
+    // ------------------- Step 1: flagged items -> outbox -------------------
+    public int enqueuePendingItems() {
+        Query flagged = Query.query(Criteria.where("notificationsPending").is(true)).limit(batchSize);
+        flagged.fields().include("userId", "itemName", "itemType", "description", "location", "dateReported", "status");
+        int queued = 0;
+        for (Item foundItem : mongoTemplate.find(flagged, Item.class)) {
+            List<Notification> notifications = notificationsFor(foundItem);
+            queued += insertIgnoringDuplicates(notifications);
+            // Cleared only after the outbox write, so a crash in between just repeats the (idempotent) insert
+            mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(foundItem.getId())),
+                    new Update().unset("notificationsPending"), Item.class);
+        }
+        return queued;
+    }
+
+    // Fixed cost whatever the number of matches: candidates come from the match index, owners from one query
+    private List<Notification> notificationsFor(Item foundItem) {
+        if (foundItem.getStatus() != Item.ItemStatus.FOUND || foundItem.getItemName() == null) {
+            return List.of();
+        }
+        // Best scoring lost item per owner
+        Map<String, Item> lostItemByOwner = new LinkedHashMap<>();
+        for (Item lostItem : matchingLostItems(foundItem)) {
+            if (lostItem.getUserId() != null) {
+                lostItemByOwner.putIfAbsent(lostItem.getUserId(), lostItem);
+            }
+        }
+        if (lostItemByOwner.isEmpty()) {
+            return List.of();
+        }
+        Map<String, User> owners = userService.getContactsByIds(lostItemByOwner.keySet());
+
+        List<Notification> notifications = new ArrayList<>();
+        lostItemByOwner.forEach((ownerId, lostItem) -> {
+            User lostOwner = owners.get(ownerId);
+            if (lostOwner == null || lostOwner.getEmail() == null) {
+                return;
+            }
+            Notification notification = new Notification();
+            notification.setId(Notification.idFor(foundItem.getId(), ownerId));
+            notification.setFoundItemId(foundItem.getId());
+            notification.setLostItemId(lostItem.getId());
+            notification.setRecipientUserId(ownerId);
+            notification.setRecipientEmail(lostOwner.getEmail());
+            notification.setSubject("A similar item has been found!");
+            notification.setBody(matchEmailBody(lostOwner, lostItem, foundItem));
+            notification.setNextAttemptAt(LocalDateTime.now());
+            notifications.add(notification);
+        });
+        return notifications;
+    }
+
+    // Fuzzy matches from the in-memory index; exact name (ignoring case) until that has loaded
+    private List<Item> matchingLostItems(Item foundItem) {
+        if (!itemMatchingService.isReady()) {
+            return itemRepository.findLostItemsNamed(foundItem.getItemName());
+        }
+        return itemMatchingService.lostItemsToNotify(foundItem).stream()
+                .map(match -> {
+                    Item lostItem = new Item();
+                    lostItem.setId(match.entry().id());
+                    lostItem.setUserId(match.entry().userId());
+                    lostItem.setItemName(match.entry().itemName());
+                    return lostItem;
+                })
+                .toList();
+    }
+
+    private static String matchEmailBody(User lostOwner, Item lostItem, Item foundItem) {
+        return "Hi " + lostOwner.getFirstName() + ",\n\n"
+                + "We noticed that you reported a lost item: " + lostItem.getItemName() + ".\n"
+                + "Good news! A similar item was just reported as FOUND.\n\n"
+                + "Item details:\n"
+                + "- Name: " + foundItem.getItemName() + "\n"
+                + "- Type: " + foundItem.getItemType() + "\n"
+                + "- Reported on: " + foundItem.getDateReported() + "\n\n"
+                + "Please log in to the Lost & Found portal to check it out.\n\n"
+                + "Best regards,\nLost & Found Team";
+    }
+
+    private int insertIgnoringDuplicates(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return 0;
+        }
+        try {
+            return mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Notification.class)
+                    .insert(notifications)
+                    .execute()
+                    .getInsertedCount();
+        } catch (BulkOperationException e) {
+            // Already queued by an earlier run that stopped before clearing the flag
+            if (e.getErrors().stream().allMatch(error -> error.getCode() == DUPLICATE_KEY)) {
+                return e.getResult().getInsertedCount();
+            }
+            throw e;
+        }
+    }
+
+    // ------------------- Step 2: outbox -> SMTP -------------------
+    public int sendDueNotifications() {
+        LocalDateTime now = LocalDateTime.now();
+        // PENDING ones that are due, and SENDING ones whose lease ran out (the sender died mid-way)
+        Query due = Query.query(Criteria.where("status").in(NotificationStatus.PENDING, NotificationStatus.SENDING)
+                        .and("nextAttemptAt").lte(now))
+                .with(Sort.by("nextAttemptAt"))
+                .limit(batchSize);
+        List<Notification> claimed = new ArrayList<>();
+        for (Notification notification : mongoTemplate.find(due, Notification.class)) {
+            if (claim(notification, now)) {
+                claimed.add(notification);
+            }   // otherwise another instance got it first
+        }
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+        // One call, so the whole batch shares SMTP connections (see NotificationService)
+        List<Exception> failures = notificationService.deliverAll(claimed.stream()
+                .map(notification -> {
+                    SimpleMailMessage message = new SimpleMailMessage();
+                    message.setTo(notification.getRecipientEmail());
+                    message.setSubject(notification.getSubject());
+                    message.setText(notification.getBody());
+                    return message;
+                })
+                .toList());
+        int sent = 0;
+        for (int i = 0; i < claimed.size(); i++) {
+            if (failures.get(i) == null) {
+                markSent(claimed.get(i));
+                sent++;
+            } else {
+                markFailed(claimed.get(i), failures.get(i));
+            }
+        }
+        return sent;
+    }
+
+    private boolean claim(Notification notification, LocalDateTime now) {
+        Query unchanged = Query.query(Criteria.where("id").is(notification.getId())
+                .and("status").is(notification.getStatus())
+                .and("nextAttemptAt").is(notification.getNextAttemptAt()));
+        Update sending = new Update()
+                .set("status", NotificationStatus.SENDING)
+                .set("nextAttemptAt", now.plus(lease));
+        return mongoTemplate.updateFirst(unchanged, sending, Notification.class).getModifiedCount() == 1;
+    }
+
+    private void markSent(Notification notification) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(notification.getId())),
+                new Update()
+                        .set("status", NotificationStatus.SENT)
+                        .set("sentAt", LocalDateTime.now())
+                        .inc("attempts", 1)
+                        .unset("nextAttemptAt")
+                        .unset("lastError"),
+                Notification.class);
+    }
+
+    private void markFailed(Notification notification, Exception error) {
+        int attempts = notification.getAttempts() + 1;
+        Update update = new Update()
+                .set("attempts", attempts)
+                .set("lastError", error.getMessage());
+        if (attempts >= maxAttempts) {
+            update.set("status", NotificationStatus.DEAD).unset("nextAttemptAt");
+            log.error("Giving up on notification {} to {} after {} attempts: {}",
+                    notification.getId(), notification.getRecipientEmail(), attempts, error.getMessage());
+        } else {
+            Duration backoff = backoff(attempts);
+            update.set("status", NotificationStatus.PENDING)
+                    .set("nextAttemptAt", LocalDateTime.now().plus(backoff));
+            log.warn("Notification {} failed (attempt {}), retrying in {}s: {}",
+                    notification.getId(), attempts, backoff.toSeconds(), error.getMessage());
+        }
+        mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(notification.getId())),
+                update, Notification.class);
+    }
+
+    // initial, 2x, 4x, ... capped at max-backoff
+    Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+}
@@ -1,30 +1,159 @@
 package com.example.LostAndFound.service;
 
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Sends email through the configured SMTP server.
+ *
+ * Messages go out in batches: one {@code JavaMailSender.send(SimpleMailMessage...)} call
+ * opens a single SMTP connection (one STARTTLS handshake) for the whole batch. Up to
+ * {@code app.mail.concurrency} batches are sent in parallel and the total rate is held
+ * under {@code app.mail.rate-limit-per-second}. NotificationDispatcher hands over what it
+ * claimed from the outbox in one {@link #deliverAll} call and retries what comes back failed.
+ */
 @Service
 public class NotificationService {
 
+    private static final Logger log = LoggerFactory.getLogger(NotificationService.class);
+
     private final JavaMailSender mailSender;
+    private final int batchSize;
+    private final long nanosPerMessage;     // 0 = no rate limit
+    private final ExecutorService senders;
+    private final Counter sent;
+    private final Counter failed;
+    private final Timer batchLatency;
+    private final Lock throttleLock = new ReentrantLock();  // not synchronized: callers may be virtual threads
+    private long nextSendAt = System.nanoTime();
 
-    public NotificationService(JavaMailSender mailSender) {
+    public NotificationService(JavaMailSender mailSender,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.mail.batch.size:50}") int batchSize,
+                               @Value("${app.mail.concurrency:2}") int concurrency,
+                               @Value("${app.mail.rate-limit-per-second:10}") double rateLimitPerSecond) {
         this.mailSender = mailSender;
+        this.batchSize = Math.max(1, batchSize);
+        this.nanosPerMessage = rateLimitPerSecond > 0 ? (long) (1_000_000_000L / rateLimitPerSecond) : 0;
+        // Platform threads even in virtual-thread mode: Jakarta Mail's transport methods are synchronized
+        // and would pin a carrier for a whole SMTP exchange. Callers only wait on the futures.
+        this.senders = Executors.newFixedThreadPool(Math.max(1, concurrency),
+                Thread.ofPlatform().name("mail-sender-", 0).daemon().factory());
+
+        this.sent = Counter.builder("mail.sent").register(meterRegistry);
+        this.failed = Counter.builder("mail.failed").register(meterRegistry);
+        this.batchLatency = Timer.builder("mail.batch.latency")
+                .description("One SMTP connection: connect, STARTTLS and every message in the batch")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
     }
 
-    // Add this method
-    public void sendEmail(String to, String subject, String body) {
+    /**
+     * Sends the messages in connection-sharing batches and blocks until all are done.
+     * Returns one entry per message, in order: null when it was sent, otherwise why it failed.
+     */
+    public List<Exception> deliverAll(List<SimpleMailMessage> messages) {
+        List<Future<Map<SimpleMailMessage, Exception>>> batches = new ArrayList<>();
+        for (int from = 0; from < messages.size(); from += batchSize) {
+            List<SimpleMailMessage> batch = messages.subList(from, Math.min(from + batchSize, messages.size()));
+            batches.add(senders.submit(() -> sendBatch(batch)));
+        }
+        Map<SimpleMailMessage, Exception> failures = new IdentityHashMap<>();
+        for (int i = 0; i < batches.size(); i++) {
+            try {
+                failures.putAll(batches.get(i).get());
+            } catch (ExecutionException | InterruptedException e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                int from = i * batchSize;
+                messages.subList(from, Math.min(from + batchSize, messages.size()))
+                        .forEach(message -> failures.put(message, e));
+            }
+        }
+        List<Exception> results = new ArrayList<>(messages.size());
+        messages.forEach(message -> results.add(failures.get(message)));
+        return results;
+    }
+
+    // One SMTP connection for the whole batch
+    private Map<SimpleMailMessage, Exception> sendBatch(List<SimpleMailMessage> batch) throws InterruptedException {
+        throttle(batch.size());
+        Map<SimpleMailMessage, Exception> failures = new IdentityHashMap<>();
+        long startedAt = System.nanoTime();
         try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(to);
-            message.setSubject(subject);
-            message.setText(body);
-            mailSender.send(message);
-
-            System.out.println("✅ Email sent successfully to " + to);
-        } catch (Exception e) {
-            System.err.println("❌ Failed to send email: " + e.getMessage());
+            mailSender.send(batch.toArray(SimpleMailMessage[]::new));
+        } catch (MailSendException e) {
+            // Only the listed messages failed; keys are the messages we passed in. A failed connect
+            // lists the whole batch. Nothing listed means the transport failed on close, after the
+            // server had accepted every message, so retrying would send them twice.
+            e.getFailedMessages().forEach((message, cause) -> {
+                if (message instanceof SimpleMailMessage simpleMessage) {
+                    failures.put(simpleMessage, cause);
+                }
+            });
+            if (failures.isEmpty()) {
+                log.warn("Mail connection failed after sending {} emails: {}", batch.size(), e.getMessage());
+            }
+        } catch (MailException e) {
+            batch.forEach(message -> failures.put(message, e));
+        } finally {
+            batchLatency.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+        sent.increment(batch.size() - failures.size());
+        failed.increment(failures.size());
+        if (!failures.isEmpty()) {
+            log.warn("{} of {} emails failed: {}", failures.size(), batch.size(),
+                    failures.values().iterator().next().getMessage());
         }
+        return failures;
+    }
+
+    // Spaces messages 1/rate apart across all sender threads
+    private void throttle(int messages) throws InterruptedException {
+        if (nanosPerMessage == 0) {
+            return;
+        }
+        long waitNanos;
+        throttleLock.lock();
+        try {
+            long now = System.nanoTime();
+            long startAt = Math.max(now, nextSendAt);
+            nextSendAt = startAt + nanosPerMessage * messages;
+            waitNanos = startAt - now;
+        } finally {
+            throttleLock.unlock();
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdown();
     }
 }
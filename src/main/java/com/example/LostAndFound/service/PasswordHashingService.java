@@ -0,0 +1,146 @@
+package com.example.LostAndFound.service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs BCrypt off the request thread, on a small pool of its own.
+ *
+ * A hash costs tens of milliseconds of CPU, so a burst of logins on request threads would take
+ * every core from the other endpoints. Here at most one hash per worker runs at a time, a few
+ * more may wait in a bounded queue, and beyond that callers get a {@link RejectedExecutionException}
+ * right away (503 at the controllers) instead of piling up.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingService.class);
+    // $2a$10$..., $2b$12$...
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d\\d)\\$");
+
+    private final PasswordEncoder passwordEncoder;
+    private final int strength;
+    private final ThreadPoolExecutor executor;
+    private final Timer hashing;
+    private final Counter rejected;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.security.hashing.workers:0}") int workers,
+                                  @Value("${app.security.hashing.queue-capacity:64}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        // Whatever SecurityConfig settled on, configured or calibrated
+        this.strength = costOf(passwordEncoder.encode("strength-probe"));
+        int threads = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        // CPU-bound, so platform threads even in virtual-thread mode
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), Thread.ofPlatform().name("bcrypt-", 0).factory(),
+                (task, pool) -> {
+                    throw new RejectedExecutionException("Too many sign-ins in progress, try again shortly");
+                });
+
+        Gauge.builder("passwords.hashing.queue.depth", executor, e -> e.getQueue().size())
+                .description("Password hashes waiting for a worker")
+                .register(meterRegistry);
+        this.hashing = Timer.builder("passwords.hashing")
+                .description("Queue wait plus one BCrypt hash or check")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("passwords.hashing.rejected").register(meterRegistry);
+    }
+
+    public String encode(CharSequence rawPassword) {
+        return await(submit(() -> passwordEncoder.encode(rawPassword)));
+    }
+
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        return await(submit(() -> passwordEncoder.matches(rawPassword, encodedPassword)));
+    }
+
+    // Hashes in the background, for work nobody waits on (re-hashing after login)
+    public CompletableFuture<String> encodeLater(CharSequence rawPassword) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        submit(() -> {
+            try {
+                result.complete(passwordEncoder.encode(rawPassword));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+            return null;
+        });
+        return result;
+    }
+
+    // true when the stored hash was made with a different cost than the one configured now
+    public boolean needsRehash(String encodedPassword) {
+        return encodedPassword != null && costOf(encodedPassword) != strength;
+    }
+
+    private <T> Future<T> submit(Callable<T> task) {
+        long enqueuedAt = System.nanoTime();
+        try {
+            return executor.submit(() -> {
+                try {
+                    return task.call();
+                } finally {
+                    hashing.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // -1 for anything that is not a BCrypt hash
+    static int costOf(String encodedPassword) {
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : -1;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("{} password hashes dropped at shutdown", executor.shutdownNow().size());
+        }
+    }
+}
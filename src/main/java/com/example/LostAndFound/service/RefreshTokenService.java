@@ -0,0 +1,126 @@
+package com.example.LostAndFound.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.example.LostAndFound.dto.AuthResponse;
+import com.example.LostAndFound.entity.RefreshToken;
+import com.example.LostAndFound.entity.User;
+
+/**
+ * Login sessions beyond the access token's lifetime, without asking for the password (and
+ * paying for BCrypt) again. Refresh tokens are single use and rotate: each refresh marks the
+ * presented one used and hands out a successor in the same family. Presenting a used token
+ * again means two parties hold it, so the family is revoked and both have to log in.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final MongoTemplate mongoTemplate;
+    private final JwtService jwtService;
+    private final UserService userService;
+    private final Duration refreshTokenTtl;
+
+    public RefreshTokenService(MongoTemplate mongoTemplate, JwtService jwtService, UserService userService,
+                               @Value("${app.security.jwt.refresh-token-ttl-days:30}") long refreshTokenTtlDays) {
+        this.mongoTemplate = mongoTemplate;
+        this.jwtService = jwtService;
+        this.userService = userService;
+        this.refreshTokenTtl = Duration.ofDays(refreshTokenTtlDays);
+    }
+
+    // After a password check: a new family
+    public AuthResponse issue(User user) {
+        String refreshToken = newRefreshToken(user.getUserId(), UUID.randomUUID().toString());
+        return AuthResponse.bearer(jwtService.issueAccessToken(user), refreshToken,
+                jwtService.getAccessTokenTtl().toSeconds(), user);
+    }
+
+    // Empty when the token is unknown, expired or already used
+    public Optional<AuthResponse> rotate(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            return Optional.empty();
+        }
+        // Read and mark used in one step, so of two concurrent refreshes only one gets through
+        RefreshToken current = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("id").is(hash(refreshToken))),
+                Update.update("used", true),
+                FindAndModifyOptions.options().returnNew(false),
+                RefreshToken.class);
+        if (current == null || current.getExpiresAt().isBefore(LocalDateTime.now())) {
+            return Optional.empty();
+        }
+        if (current.isUsed()) {
+            log.warn("Refresh token reused for user {}, revoking its session", current.getUserId());
+            revokeFamily(current.getFamilyId());
+            return Optional.empty();
+        }
+        // Current username and userType for the new claims; a cached lookup, once per access token lifetime
+        Optional<User> user = userService.getUserById(current.getUserId());
+        if (user.isEmpty()) {
+            revokeFamily(current.getFamilyId());
+            return Optional.empty();
+        }
+        return Optional.of(AuthResponse.bearer(jwtService.issueAccessToken(user.get()),
+                newRefreshToken(current.getUserId(), current.getFamilyId()),
+                jwtService.getAccessTokenTtl().toSeconds(), null));
+    }
+
+    // Logout: ends the session the token belongs to
+    public void revoke(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            return;
+        }
+        RefreshToken token = mongoTemplate.findById(hash(refreshToken), RefreshToken.class);
+        if (token != null) {
+            revokeFamily(token.getFamilyId());
+        }
+    }
+
+    private void revokeFamily(String familyId) {
+        mongoTemplate.remove(Query.query(Criteria.where("familyId").is(familyId)), RefreshToken.class);
+    }
+
+    private String newRefreshToken(String userId, String familyId) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken stored = new RefreshToken();
+        stored.setId(hash(token));
+        stored.setFamilyId(familyId);
+        stored.setUserId(userId);
+        stored.setExpiresAt(LocalDateTime.now().plus(refreshTokenTtl));
+        mongoTemplate.insert(stored);
+        return token;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,71 +1,176 @@
 package com.example.LostAndFound.service;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import com.example.LostAndFound.config.CacheConfig;
+import com.example.LostAndFound.dto.SignupRequest;
+import com.example.LostAndFound.dto.UserPatchRequest;
 import com.example.LostAndFound.entity.User;
+import com.example.LostAndFound.event.UserEvent;
+import com.example.LostAndFound.repository.ImageStore;
+import com.example.LostAndFound.repository.StoredImage;
 import com.example.LostAndFound.repository.UserRepository;
 
 @Service
 public class UserService {
 
+    private static final Logger log = LoggerFactory.getLogger(UserService.class);
+    private static final Pattern DUPLICATE_INDEX = Pattern.compile("index: (\\S+) dup key");
+
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder; // Use PasswordEncoder instead of BCryptPasswordEncoder
+    // BCrypt on its own bounded pool; encode/matches throw RejectedExecutionException when it is full
+    private final PasswordHashingService passwordHashing;
+    private final ImageStore imageStore;
+    private final CacheManager cacheManager;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordHashingService passwordHashing, ImageStore imageStore,
+                       CacheManager cacheManager) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashing = passwordHashing;
+        this.imageStore = imageStore;
+        this.cacheManager = cacheManager;
     }
     //   public User getUserById(String id) {
     //     return userRepository.findById(id)
     //             .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
     // }
-   public Optional<User> getUserById(String id) {
-    return userRepository.findById(id); // returns Optional<User> directly
+    // Cached lookups (see CacheConfig). Entries leave out profilePicture; misses are not cached.
+    @Cacheable(cacheNames = CacheConfig.USERS_BY_ID, unless = "#result == null")
+    public Optional<User> getUserById(String id) {
+        return userRepository.findWithoutPictureByUserId(id);
+    }
+
+    // Name and email of each user, in one query; unknown ids are left out
+    public Map<String, User> getContactsByIds(Collection<String> ids) {
+        return userRepository.findContactsByUserIdIn(ids).stream()
+                .collect(Collectors.toMap(User::getUserId, Function.identity()));
     }
 
 
+    @Cacheable(cacheNames = CacheConfig.USERS_BY_USERNAME, unless = "#result == null")
     public Optional<User> getUserByUsername(String username) {
-        return userRepository.findByUsername(username);
+        return userRepository.findWithoutPictureByUsername(username);
     }
 
+    @Cacheable(cacheNames = CacheConfig.USERS_BY_EMAIL, unless = "#result == null")
     public Optional<User> getUserByEmail(String email) {
-        return userRepository.findByEmail(email);
+        return userRepository.findWithoutPictureByEmail(email);
     }
 
-    public String registerUser(User user) {
-        // Check if email already exists
-        Optional<User> existingUserByEmail = userRepository.findByEmail(user.getEmail());
-        if (existingUserByEmail.isPresent()) {
-            return "Email is already in use!";
+    // Drops every cached copy of this user; pass the state before a change so an old email is evicted too
+    private void evictCached(User user) {
+        evict(CacheConfig.USERS_BY_ID, user.getUserId());
+        evict(CacheConfig.USERS_BY_USERNAME, user.getUsername());
+        evict(CacheConfig.USERS_BY_EMAIL, user.getEmail());
+    }
+
+    private void evict(String cacheName, String key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null && key != null) {
+            cache.evict(key);
         }
+    }
+
+    // Writes from other instances, when change streams are enabled
+    @EventListener
+    public void onUserEvent(UserEvent event) {
+        Cache byId = cacheManager.getCache(CacheConfig.USERS_BY_ID);
+        User cached = (byId == null || event.userId() == null) ? null : byId.get(event.userId(), User.class);
+        if (cached != null) {
+            evictCached(cached);
+            return;
+        }
+        // Its username/email keys are unknown, so those caches start over
+        List.of(CacheConfig.USERS_BY_ID, CacheConfig.USERS_BY_USERNAME, CacheConfig.USERS_BY_EMAIL).forEach(name -> {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        });
+    }
+
+    public Optional<StoredImage> getProfilePicture(String username) {
+        return userRepository.findProfilePictureByUsername(username).flatMap(user -> {
+            if (user.getProfilePictureId() != null) {
+                return imageStore.load(user.getProfilePictureId());
+            }
+            // Not migrated yet: still a base64 string in the document
+            return Optional.ofNullable(user.getProfilePicture())
+                    .filter(picture -> !picture.isEmpty())
+                    .flatMap(picture -> decodeLegacyPicture(username, picture));
+        });
+    }
 
-        // Check if username already exists
-        Optional<User> existingUserByUsername = userRepository.findByUsername(user.getUsername());
-        if (existingUserByUsername.isPresent()) {
-            return "Username is already taken!";
+    private static Optional<StoredImage> decodeLegacyPicture(String username, String picture) {
+        try {
+            return Optional.of(StoredImage.fromBytes(Base64.getDecoder().decode(picture)));
+        } catch (IllegalArgumentException e) {
+            log.warn("Stored profile picture of {} is not valid base64, skipping it: {}", username, e.getMessage());
+            return Optional.empty();
         }
+    }
 
+    // No lookups first: the unique username/email indexes reject a taken one, concurrent signups included
+    public String registerUser(SignupRequest request) {
+        // Built field by field: every account starts as a plain User, whatever the request says
+        User user = new User();
+        user.setFirstName(request.getFirstName());
+        user.setLastName(request.getLastName());
+        user.setUsername(request.getUsername());
+        user.setEmail(request.getEmail());
+        user.setDate_of_birth(request.getDateOfBirth());
+        user.setGender(request.getGender());
+        user.setUserType(User.UserType.User);
         // Hash the password before saving
         // comment this out to prevent hashing
-        user.setPassword(passwordEncoder.encode(user.getPassword())); //hashes user_password
+        user.setPassword(passwordHashing.encode(request.getPassword())); //hashes user_password
 
-        // Save the user
-        userRepository.save(user);
+        try {
+            userRepository.insert(user);
+        } catch (DuplicateKeyException e) {
+            return isEmailConflict(e) ? "Email is already in use!" : "Username is already taken!";
+        }
         return "User registered successfully!";
     }
 
+    // Whether the unique index a duplicate key error names is the email one. The index name comes
+    // before "dup key" in "... index: email dup key: { email: \"...\" }", so the value cannot match.
+    private static boolean isEmailConflict(DuplicateKeyException e) {
+        Matcher index = DUPLICATE_INDEX.matcher(String.valueOf(e.getMessage()));
+        return index.find() && index.group(1).startsWith("email");
+    }
+
     public User validateUser(String email, String password) {
-        Optional<User> userOptional = userRepository.findByEmail(email);
+        // Not cached: the stored hash has to be current
+        Optional<User> userOptional = userRepository.findWithoutPictureByEmail(email);
         
         if (userOptional.isPresent()) {
             User user = userOptional.get();
             
-            if (passwordEncoder.matches(password, user.getPassword())) {
+            if (passwordHashing.matches(password, user.getPassword())) {
+                rehashIfOutdated(user, password);
                 return user;
             }
         }
@@ -73,53 +178,98 @@ public class UserService {
         return null; // Invalid credentials
     }
 
-    // Method to update the user's profile
-    @Transactional
+    // After a BCrypt cost change, each stored hash is upgraded at its owner's next login, in the background
+    private void rehashIfOutdated(User user, String password) {
+        String oldHash = user.getPassword();
+        if (!passwordHashing.needsRehash(oldHash)) {
+            return;
+        }
+        try {
+            passwordHashing.encodeLater(password).thenAccept(newHash -> {
+                if (userRepository.replacePasswordHash(user.getUsername(), oldHash, newHash)) {
+                    evictCached(user);
+                }
+            }).exceptionally(e -> {
+                log.warn("Re-hashing the password of {} failed: {}", user.getUsername(), e.getMessage());
+                return null;
+            });
+        } catch (RejectedExecutionException e) {
+            // Busy; the next login tries again
+        }
+    }
+
+    // PUT: replaces the profile fields (not the username) without reading the document first
     public String updateUser(String username, User updatedUser) {
-        // Step 1: Check if the user exists
-        Optional<User> existingUserOpt = userRepository.findByUsername(username);
+        return patchUser(username, UserPatchRequest.of(updatedUser));
+    }
 
-        if (!existingUserOpt.isPresent()) {
-            return "User not found";  // If the user does not exist
-        }
+    // PATCH: one $set of the fields given; uniqueness is left to the unique username/email indexes
+    public String patchUser(String username, UserPatchRequest patch) {
+        Update update = new Update();
+        setIfPresent(update, "firstName", patch.getFirstName());
+        setIfPresent(update, "lastName", patch.getLastName());
+        setIfPresent(update, "username", patch.getUsername());
+        setIfPresent(update, "email", patch.getEmail());
+        setIfPresent(update, "date_of_birth", patch.getDateOfBirth());
+        setIfPresent(update, "gender", patch.getGender());
 
-        // Step 2: Check if the new email is unique
-        Optional<User> userWithNewEmail = userRepository.findByEmail(updatedUser.getEmail());
-        if (userWithNewEmail.isPresent() && !userWithNewEmail.get().getUsername().equals(username)) {
-            return "Email is already taken";  // If email is already taken by another user
+        String newPicture = null;
+        if (patch.getProfilePicture() != null && !patch.getProfilePicture().isEmpty()) {
+            byte[] picture;
+            try {
+                picture = Base64.getDecoder().decode(patch.getProfilePicture());
+            } catch (IllegalArgumentException e) {
+                return "Profile picture is not valid base64";
+            }
+            try {
+                newPicture = imageStore.save(new ByteArrayInputStream(picture), StoredImage.sniffContentType(picture));
+            } catch (IOException e) {
+                return "Failed to store profile picture";
+            }
+            update.set("profilePictureId", newPicture).unset("profilePicture");
         }
-
-        // Step 3: Check if the new username is unique
-        Optional<User> userWithNewUsername = userRepository.findByUsername(updatedUser.getUsername());
-        if (userWithNewUsername.isPresent() && !userWithNewUsername.get().getUsername().equals(username)) {
-            return "Username is already taken";  // If username is already taken
+        if (update.getUpdateObject().isEmpty()) {
+            return getUserByUsername(username).isPresent()
+                    ? "User updated successfully!"
+                    : "User not found";
         }
 
-        // Step 4: Update the user's profile
-        User existingUser = existingUserOpt.get();
-        existingUser.setFirstName(updatedUser.getFirstName());
-        existingUser.setLastName(updatedUser.getLastName());
-        existingUser.setEmail(updatedUser.getEmail());
-        existingUser.setDate_of_birth(updatedUser.getDate_of_birth());
-        existingUser.setGender(updatedUser.getGender());
-
-        if (updatedUser.getProfilePicture() != null && !updatedUser.getProfilePicture().isEmpty()) {
-            existingUser.setProfilePicture(updatedUser.getProfilePicture());  // Base64 string
+        Optional<User> previous;
+        try {
+            previous = userRepository.updateByUsername(username, update);
+        } catch (DuplicateKeyException e) {
+            deleteQuietly(newPicture);
+            return isEmailConflict(e) ? "Email is already taken" : "Username is already taken";
+        }
+        if (previous.isEmpty()) {
+            deleteQuietly(newPicture);
+            return "User not found";
+        }
+        evictCached(previous.get());
+        if (newPicture != null) {
+            deleteQuietly(previous.get().getProfilePictureId());
         }
+        return "User updated successfully!";
+    }
 
-        //System.out.println("Saving user: " + existingUser); // Debugging log
+    private static void setIfPresent(Update update, String field, Object value) {
+        if (value != null) {
+            update.set(field, value instanceof String text ? text.trim() : value);
+        }
+    }
 
-        // Step 5: Save the updated user to the database
-        User savedUser = userRepository.save(existingUser);
-        System.out.println("User saved: " + savedUser); // Debugging log
-        return "User updated successfully!";
+    private void deleteQuietly(String imageReference) {
+        if (imageReference != null) {
+            imageStore.delete(imageReference);
+        }
     }
 
     public void changePassword(String username, String currentPassword, String newPassword) {
-        User user = userRepository.findByUsername(username)
+        // Only the hash is read; the rest of the document is neither loaded nor rewritten
+        User user = userRepository.findPasswordByUsername(username)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
-        if (!passwordEncoder.matches(currentPassword, user.getPassword())) {
+        if (!passwordHashing.matches(currentPassword, user.getPassword())) {
             throw new RuntimeException("Current password is incorrect");
         }
 
@@ -127,8 +277,8 @@ public class UserService {
             throw new IllegalArgumentException("New password must be at least 6 characters long");
         }
 
-        user.setPassword(passwordEncoder.encode(newPassword));
-        userRepository.save(user);
+        userRepository.updateByUsername(username, Update.update("password", passwordHashing.encode(newPassword)))
+                .ifPresent(this::evictCached);
     }
 
     public List<User> getAllUsers() {
@@ -139,21 +289,23 @@ public class UserService {
         return userRepository.count();
     }
     
-    public boolean updateProfilePicture(String username, String encodedImage) {
+    public boolean updateProfilePicture(String username, InputStream picture, String contentType) {
+        String stored = null;
         try {
-            // Fetch the user by username
-            User user = userRepository.findByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-
-            // Set the profile picture
-            user.setProfilePicture(encodedImage);
-
-            // Save the updated user entity
-            userRepository.save(user);
-
+            stored = imageStore.save(picture, "image/png".equals(contentType) ? "image/png" : "image/jpeg");
+            Optional<User> previous = userRepository.updateByUsername(username,
+                    new Update().set("profilePictureId", stored).unset("profilePicture"));
+            if (previous.isEmpty()) {
+                deleteQuietly(stored);
+                return false;
+            }
+            // Drop the old blob only once nothing points at it
+            evictCached(previous.get());
+            deleteQuietly(previous.get().getProfilePictureId());
             return true;
         } catch (Exception e) {
-            System.out.println("\n\n\n\n\n" + e);
+            log.warn("Updating the profile picture of {} failed: {}", username, e.getMessage());
+            deleteQuietly(stored);
             return false;
         }
     }
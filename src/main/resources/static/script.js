@@ -5,6 +5,9 @@ const API_BASE_URL = "http://localhost:8080/api"
 let currentUser = null
 let currentItems = []
 const currentFilter = "all"
+let listedStatus = null // status shown by loadItems ("all", "LOST", ...); null while search results are shown
+let nextItemsCursor = null // cursor for the next page of the listed status, null when there is none
+let itemStream = null
 
 // Initialize App
 document.addEventListener("DOMContentLoaded", () => {
@@ -42,7 +45,7 @@ function initializeApp() {
   const token = localStorage.getItem("authToken")
   const userData = localStorage.getItem("userData")
 
-  if (token && userData) {
+  if (token && localStorage.getItem("refreshToken") && userData) {
     currentUser = JSON.parse(userData)
     showApp()
     showPage("home")
@@ -115,9 +118,9 @@ async function handleLogin(e) {
 
       console.log("[v0] Login successful, user data:", data)
 
-      localStorage.setItem("authToken", "dummy-token") // Backend doesn't return token
-      localStorage.setItem("userData", JSON.stringify(data))
-      currentUser = data
+      storeTokens(data)
+      localStorage.setItem("userData", JSON.stringify(data.user))
+      currentUser = data.user
 
       showToast("Login successful!", "success")
       showApp()
@@ -205,14 +208,74 @@ async function handleSignup(e) {
 }
 
 function logout() {
+  const refreshToken = localStorage.getItem("refreshToken")
+  if (refreshToken) {
+    // Ends the session server-side; nothing to wait for
+    fetch(`${API_BASE_URL}/users/logout`, {
+      method: "POST",
+      headers: { "Content-Type": "application/json" },
+      body: JSON.stringify({ refreshToken }),
+    }).catch(() => {})
+  }
   localStorage.removeItem("authToken")
+  localStorage.removeItem("refreshToken")
   localStorage.removeItem("userData")
   currentUser = null
+  disconnectItemStream()
   showAuth()
   showLogin()
   showToast("Logged out successfully", "success")
 }
 
+// Tokens from /users/login and /users/refresh
+function storeTokens(data) {
+  localStorage.setItem("authToken", data.accessToken)
+  localStorage.setItem("refreshToken", data.refreshToken)
+}
+
+// A refresh token works once, so concurrent 401s share one refresh
+let refreshing = null
+
+function refreshTokens() {
+  if (!refreshing) {
+    refreshing = (async () => {
+      const refreshToken = localStorage.getItem("refreshToken")
+      if (!refreshToken) return false
+      const response = await fetch(`${API_BASE_URL}/users/refresh`, {
+        method: "POST",
+        headers: { "Content-Type": "application/json" },
+        body: JSON.stringify({ refreshToken }),
+      })
+      if (!response.ok) return false
+      storeTokens(await response.json())
+      return true
+    })()
+      .catch(() => false)
+      .finally(() => {
+        refreshing = null
+      })
+  }
+  return refreshing
+}
+
+// fetch with the access token; on 401 refreshes it once and retries, or logs out when that fails
+async function authFetch(url, options = {}) {
+  const withToken = () => ({
+    ...options,
+    headers: { ...(options.headers || {}), Authorization: `Bearer ${localStorage.getItem("authToken")}` },
+  })
+  let response = await fetch(url, withToken())
+  if (response.status === 401) {
+    if (await refreshTokens()) {
+      response = await fetch(url, withToken())
+    } else if (currentUser) {
+      showToast("Your session has expired, please log in again", "warning")
+      logout()
+    }
+  }
+  return response
+}
+
 // Navigation Functions
 function showAuth() {
   document.getElementById("auth-container").style.display = "flex"
@@ -222,6 +285,7 @@ function showAuth() {
 function showApp() {
   document.getElementById("auth-container").style.display = "none"
   document.getElementById("app-container").style.display = "block"
+  connectItemStream()
 }
 
 function showLogin() {
@@ -266,23 +330,19 @@ function toggleNavMenu() {
 async function loadHomeStats() {
   try {
     console.log("[v0] Loading home stats...")
-    const response = await fetch(`${API_BASE_URL}/items/all`, {
+    const response = await fetch(`${API_BASE_URL}/items/stats`, {
       headers: {
         "Content-Type": "application/json",
       },
     })
 
     if (response.ok) {
-      const items = await response.json()
-      console.log("[v0] Loaded items for stats:", items.length)
+      const stats = await response.json()
+      console.log("[v0] Loaded stats:", stats)
 
-      const lostCount = items.filter((item) => item.status === "LOST").length
-      const foundCount = items.filter((item) => item.status === "FOUND").length
-      const claimedCount = items.filter((item) => item.status === "CLAIMED").length
-
-      document.getElementById("total-lost").textContent = lostCount
-      document.getElementById("total-found").textContent = foundCount
-      document.getElementById("total-claimed").textContent = claimedCount
+      document.getElementById("total-lost").textContent = stats.lostCount
+      document.getElementById("total-found").textContent = stats.foundCount
+      document.getElementById("total-claimed").textContent = stats.claimedCount
     } else {
       console.error("[v0] Failed to load home stats:", response.status)
     }
@@ -291,29 +351,93 @@ async function loadHomeStats() {
   }
 }
 
+// Live updates: apply server-sent deltas instead of re-fetching lists and counts
+function connectItemStream() {
+  if (itemStream || typeof EventSource === "undefined") return
+
+  itemStream = new EventSource(`${API_BASE_URL}/items/stream`)
+  itemStream.addEventListener("item-created", (e) => applyItemDelta(JSON.parse(e.data), true))
+  itemStream.addEventListener("item-claimed", (e) => applyItemDelta(JSON.parse(e.data), false))
+  itemStream.addEventListener("item-status-changed", (e) => applyItemDelta(JSON.parse(e.data), false))
+  itemStream.addEventListener("item-updated", (e) => applyItemDelta(JSON.parse(e.data), false))
+  itemStream.addEventListener("item-deleted", (e) => removeListedItem(JSON.parse(e.data).id))
+  itemStream.addEventListener("resync", resyncItemViews)
+  // Deltas sent while disconnected are lost, so catch up after every reconnect
+  let connectedBefore = false
+  itemStream.onopen = () => {
+    if (connectedBefore) resyncItemViews()
+    connectedBefore = true
+  }
+}
+
+function disconnectItemStream() {
+  if (itemStream) {
+    itemStream.close()
+    itemStream = null
+  }
+}
+
+function resyncItemViews() {
+  loadHomeStats()
+  if (listedStatus !== null) loadItems(listedStatus)
+}
+
+function applyItemDelta(delta, created) {
+  const item = delta.item
+  if (!item) return
+
+  if (created) {
+    adjustHomeStat(item.status, 1)
+  } else if (delta.previousStatus && delta.previousStatus !== item.status) {
+    adjustHomeStat(delta.previousStatus, -1)
+    adjustHomeStat(item.status, 1)
+  } else if (!delta.previousStatus) {
+    loadHomeStats() // previous status unknown
+  }
+
+  if (listedStatus === null) return
+  const index = currentItems.findIndex((i) => i.id === item.id)
+  const belongs = listedStatus === "all" || listedStatus === item.status
+  if (belongs && index >= 0) {
+    currentItems[index] = item
+  } else if (belongs) {
+    currentItems.unshift(item)
+  } else if (index >= 0) {
+    currentItems.splice(index, 1)
+  } else {
+    return
+  }
+  displayItems(currentItems)
+}
+
+function removeListedItem(itemId) {
+  loadHomeStats()
+  const index = currentItems.findIndex((i) => i.id === itemId)
+  if (listedStatus !== null && index >= 0) {
+    currentItems.splice(index, 1)
+    displayItems(currentItems)
+  }
+}
+
+function adjustHomeStat(status, change) {
+  const ids = { LOST: "total-lost", FOUND: "total-found", CLAIMED: "total-claimed" }
+  const element = ids[status] && document.getElementById(ids[status])
+  if (element && element.textContent !== "") {
+    element.textContent = Math.max(0, Number(element.textContent) + change)
+  }
+}
+
 async function loadItems(status = "all") {
   showLoading(true)
   console.log("[v0] Loading items with status:", status)
+  listedStatus = status === "all" ? "all" : status.toUpperCase()
 
   try {
-    let url = `${API_BASE_URL}/items/all`
-    if (status !== "all") {
-      url = `${API_BASE_URL}/items/${status.toLowerCase()}`
-    }
-
-    const response = await fetch(url, {
-      headers: {
-        "Content-Type": "application/json",
-      },
-    })
-
-    if (response.ok) {
-      currentItems = await response.json()
+    const page = await fetchItemPage(null)
+    if (page) {
+      currentItems = page.items
       console.log("[v0] Loaded items:", currentItems.length)
       displayItems(currentItems)
-    } else {
-      console.error("[v0] Failed to load items:", response.status)
-      showToast("Failed to load items", "error")
     }
   } catch (error) {
     console.error("[v0] Error loading items:", error)
@@ -323,6 +447,47 @@ async function loadItems(status = "all") {
   showLoading(false)
 }
 
+async function loadMoreItems() {
+  if (listedStatus === null || !nextItemsCursor) return
+  try {
+    const page = await fetchItemPage(nextItemsCursor)
+    if (page) {
+      // Items pushed over the stream meanwhile may already be listed
+      const listed = new Set(currentItems.map((i) => i.id))
+      currentItems = currentItems.concat(page.items.filter((i) => !listed.has(i.id)))
+      displayItems(currentItems)
+    }
+  } catch (error) {
+    console.error("[v0] Error loading more items:", error)
+    showToast("Network error loading items", "error")
+  }
+}
+
+// One keyset page of the listed status; null (after a toast) when the request fails
+async function fetchItemPage(cursor) {
+  let url = `${API_BASE_URL}/items`
+  const params = new URLSearchParams()
+  if (listedStatus !== "all") params.set("status", listedStatus)
+  if (cursor) params.set("cursor", cursor)
+  if (params.toString()) url += `?${params}`
+
+  const response = await fetch(url, { headers: { "Content-Type": "application/json" } })
+  if (!response.ok) {
+    console.error("[v0] Failed to load items:", response.status)
+    showToast("Failed to load items", "error")
+    return null
+  }
+  const page = await response.json()
+  setNextItemsCursor(page.nextCursor)
+  return page
+}
+
+function setNextItemsCursor(cursor) {
+  nextItemsCursor = cursor || null
+  const button = document.getElementById("load-more-btn")
+  if (button) button.style.display = nextItemsCursor ? "" : "none"
+}
+
 async function loadDashboard() {
   if (!currentUser) return
 
@@ -330,7 +495,7 @@ async function loadDashboard() {
   console.log("[v0] Loading dashboard for user:", currentUser.userId)
 
   try {
-    const response = await fetch(`${API_BASE_URL}/users/${currentUser.userId}/dashboard`, {
+    const response = await authFetch(`${API_BASE_URL}/users/${currentUser.userId}/dashboard`, {
       headers: {
         "Content-Type": "application/json",
       },
@@ -344,6 +509,8 @@ async function loadDashboard() {
       document.getElementById("user-lost-count").textContent = dashboardData.lostCount
       document.getElementById("user-found-count").textContent = dashboardData.foundCount
       document.getElementById("user-claimed-count").textContent = dashboardData.claimedCount
+      const returnedCountEl = document.getElementById("user-returned-count")
+      if (returnedCountEl) returnedCountEl.textContent = dashboardData.returnedCount
 
       displayRecentItems(dashboardData.recentItems)
     } else {
@@ -395,8 +562,8 @@ function loadProfile() {
   document.getElementById("profile-dob").value = currentUser.dateOfBirth || ""
   document.getElementById("profile-gender").value = currentUser.gender || ""
 
-  if (currentUser.profilePicture) {
-    document.getElementById("profile-avatar").src = `data:image/jpeg;base64,${currentUser.profilePicture}`
+  if (currentUser.profilePictureId || currentUser.profilePicture) {
+    document.getElementById("profile-avatar").src = `${API_BASE_URL}/users/${encodeURIComponent(currentUser.username)}/profile-picture`
   }
 }
 
@@ -439,7 +606,7 @@ async function handleReportItem(e) {
     // Optional debug (trim base64 to avoid huge logs)
     // console.log("[v0] Reporting item payload:", Object.assign({}, itemData, { imageBase64: imageBase64 ? imageBase64.slice(0, 32) + "..." : null }));
 
-    var resp = await fetch(API_BASE_URL + "/items/report", {
+    var resp = await authFetch(API_BASE_URL + "/items/report", {
       method: "POST",
       headers: { "Content-Type": "application/json" },
       body: JSON.stringify(itemData),
@@ -456,8 +623,7 @@ async function handleReportItem(e) {
     if (form && typeof form.reset === "function") form.reset();
     var preview = document.getElementById("image-preview");
     if (preview) preview.innerHTML = "";
-    showPage("browse");
-    loadItems("all");
+    showPage("browse"); // loads the list; later changes arrive on the item stream
   } catch (err) {
     console.error("[v0] Error reporting item:", err);
     showToast("Network error. Please try again.", "error");
@@ -473,7 +639,8 @@ async function claimItem(itemId) {
   console.log("[v0] Claiming item:", itemId)
 
   try {
-    const response = await fetch(`${API_BASE_URL}/items/${itemId}/claim`, {
+    // The claimant is whoever the access token belongs to
+    const response = await authFetch(`${API_BASE_URL}/items/${itemId}/claim`, {
       method: "PUT",
       headers: {
         "Content-Type": "application/json",
@@ -483,10 +650,14 @@ async function claimItem(itemId) {
     if (response.ok) {
       console.log("[v0] Item claimed successfully")
       showToast("Item claimed successfully!", "success")
-      loadItems(currentFilter)
+      if (!itemStream) loadItems(currentFilter) // otherwise the claim arrives as a delta
     } else {
       console.error("[v0] Failed to claim item:", response.status)
-      showToast("Failed to claim item", "error")
+      const error = await response.text()
+      showToast(error || "Failed to claim item", "error")
+      if (response.status === 409 && !itemStream) {
+        loadItems(currentFilter)
+      }
     }
   } catch (error) {
     console.error("[v0] Error claiming item:", error)
@@ -510,21 +681,28 @@ async function handleUpdateProfile(e) {
   e.preventDefault()
   showLoading(true)
 
-  const updatedData = {
+  const formData = {
     firstName: document.getElementById("profile-firstname").value,
     lastName: document.getElementById("profile-lastname").value,
     username: document.getElementById("profile-username").value,
     email: document.getElementById("profile-email").value,
     dateOfBirth: document.getElementById("profile-dob").value,
     gender: document.getElementById("profile-gender").value,
-    profilePicture: currentUser.profilePicture,
+  }
+
+  // Only what changed; the picture has its own upload endpoint
+  const updatedData = {}
+  for (const [field, value] of Object.entries(formData)) {
+    if (value !== "" && value !== currentUser[field]) {
+      updatedData[field] = value
+    }
   }
 
   console.log("[v0] Updating profile for user:", currentUser.username)
 
   try {
-    const response = await fetch(`${API_BASE_URL}/users/${currentUser.username}`, {
-      method: "PUT",
+    const response = await authFetch(`${API_BASE_URL}/users/${currentUser.username}`, {
+      method: "PATCH",
       headers: {
         "Content-Type": "application/json",
       },
@@ -573,7 +751,7 @@ async function handleChangePassword(e) {
   console.log("[v0] Changing password for user:", currentUser.username)
 
   try {
-    const response = await fetch(`${API_BASE_URL}/users/${currentUser.username}/change-password`, {
+    const response = await authFetch(`${API_BASE_URL}/users/${currentUser.username}/change-password`, {
       method: "PUT",
       headers: {
         "Content-Type": "application/json",
@@ -674,7 +852,7 @@ async function updateProfilePicture(base64Data) {
   console.log("[v0] Updating profile picture")
 
   try {
-    const response = await fetch(`${API_BASE_URL}/users/${currentUser.username}/profile-picture`, {
+    const response = await authFetch(`${API_BASE_URL}/users/${currentUser.username}/profile-picture`, {
       method: "PUT",
       headers: {
         "Content-Type": "application/json",
@@ -905,33 +1083,23 @@ async function handleReportItem(e) {
       return;
     }
 
-    var imageInput = document.getElementById("item-image-data");
-    var imageBase64 = null;
-
-    if (imageInput && imageInput.value) {
-      try {
-        var imgData = JSON.parse(imageInput.value);
-        var raw = (imgData && (imgData.base64 || imgData.dataUrl || imgData.dataURL)) || null;
-        imageBase64 = extractBase64(raw);
-      } catch (_) {
-        imageBase64 = null;
-      }
+    // Multipart upload: the file is sent as-is instead of as a base64 string in JSON
+    var body = new FormData();
+    body.append("userId", currentUser.userId);
+    body.append("itemName", (document.getElementById("item-name") || {}).value || "");
+    body.append("itemType", (document.getElementById("item-type") || {}).value || "");
+    body.append("description", (document.getElementById("item-description") || {}).value || "");
+    body.append("location", (document.getElementById("item-location") || {}).value || "");
+    body.append("status", ((document.getElementById("item-status") || {}).value || "LOST").toUpperCase());
+
+    var fileInput = document.getElementById("item-image");
+    if (fileInput && fileInput.files && fileInput.files[0]) {
+      body.append("image", fileInput.files[0]);
     }
 
-    var body = {
-      userId: currentUser.userId,
-      itemName: (document.getElementById("item-name") || {}).value || "",
-      itemType: (document.getElementById("item-type") || {}).value || "",
-      description: (document.getElementById("item-description") || {}).value || "",
-      location: (document.getElementById("item-location") || {}).value || "",
-      status: ((document.getElementById("item-status") || {}).value || "LOST").toUpperCase(),
-      imageBase64: imageBase64
-    };
-
-    var resp = await fetch(API_BASE_URL + "/items/report", {
+    var resp = await authFetch(API_BASE_URL + "/items/report", {
       method: "POST",
-      headers: { "Content-Type": "application/json" },
-      body: JSON.stringify(body)
+      body: body
     });
 
     if (!resp.ok) {
@@ -945,8 +1113,7 @@ async function handleReportItem(e) {
     if (form && typeof form.reset === "function") form.reset();
     var preview = document.getElementById("image-preview");
     if (preview) preview.innerHTML = "";
-    showPage("browse");
-    loadItems("all");
+    showPage("browse"); // loads the list; later changes arrive on the item stream
   } catch (err) {
     console.error("[v0] Error reporting item:", err);
     showToast("Network error. Please try again.", "error");
@@ -956,7 +1123,7 @@ async function handleReportItem(e) {
 }
 // <CHANGE> build a valid src whether backend returns base64, data URL, or HTTP URL
 function buildImageSrc(item) {
-  var val = (item && (item.itemImageBase64 || item.itemImage || item.imageUrl)) || null;
+  var val = (item && (item.cardUrl || item.thumbnailUrl || item.itemImageBase64 || item.itemImage || item.imageUrl)) || null;
   if (!val) return null;
 
   // If server already returns a full URL or data URL, use it as-is
@@ -964,6 +1131,11 @@ function buildImageSrc(item) {
     return val;
   }
 
+  // Server-relative URL such as /api/items/{id}/image
+  if (typeof val === "string" && val.startsWith("/")) {
+    return API_BASE_URL.replace(/\/api$/, "") + val;
+  }
+
   // Otherwise assume it's raw base64 and prefix as JPEG
   return "data:image/jpeg;base64," + val.trim();
 }
@@ -997,9 +1169,11 @@ async function searchItems() {
     });
     if (!response.ok) throw new Error("Search failed with status " + response.status);
 
-    const items = await response.json();
-    console.log("[v1] Search results:", items);
-    displayItems(items);
+    const data = await response.json();
+    console.log("[v1] Search results:", data);
+    listedStatus = null; // live updates apply to status lists only
+    setNextItemsCursor(null);
+    displayItems(data.items);
   } catch (err) {
     console.error("[v1] Error searching items:", err);
     showToast("Error performing search", "error");
@@ -3,7 +3,8 @@ package com.example.LostAndFound;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+// No MongoDB here, and the unique indexes are created before the context counts as started
+@SpringBootTest(properties = "app.mongo.indexes.create-on-startup=false")
 class LostAndFoundApplicationTests {
 
 	@Test
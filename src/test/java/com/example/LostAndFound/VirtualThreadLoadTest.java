@@ -0,0 +1,126 @@
+package com.example.LostAndFound;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Throughput and p99 latency of a Mongo-backed endpoint with platform vs virtual request threads.
+ * Starts the app once per mode against the configured MongoDB and drives it with many concurrent
+ * clients. Needs a running MongoDB with some items, so it only runs when asked for:
+ *
+ *   mvn test -Dtest=VirtualThreadLoadTest -Dloadtest=true [-Dloadtest.clients=1000] [-Dloadtest.seconds=20]
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class VirtualThreadLoadTest {
+
+	private static final int CLIENTS = Integer.getInteger("loadtest.clients", 1000);
+	private static final Duration WARM_UP = Duration.ofSeconds(5);
+	private static final Duration MEASURE = Duration.ofSeconds(Integer.getInteger("loadtest.seconds", 20));
+	private static final String PATH = System.getProperty("loadtest.path", "/api/items?limit=20");
+
+	record Result(String mode, long requests, long errors, double perSecond, double p50Ms, double p99Ms) {
+		@Override
+		public String toString() {
+			return String.format("%-8s %8d requests %6d errors %9.1f req/s  p50 %7.1f ms  p99 %7.1f ms",
+					mode, requests, errors, perSecond, p50Ms, p99Ms);
+		}
+	}
+
+	@Test
+	void comparePlatformAndVirtualThreads() throws Exception {
+		Result platform = run("platform", false);
+		Result virtual = run("virtual", true);
+
+		System.out.println("\n" + CLIENTS + " clients, GET " + PATH + ", " + MEASURE.toSeconds() + " s each");
+		System.out.println(platform);
+		System.out.println(virtual);
+
+		assertTrue(platform.requests() > 0 && virtual.requests() > 0, "no requests completed");
+	}
+
+	private Result run(String mode, boolean virtualThreads) throws Exception {
+		try (ConfigurableApplicationContext app = new SpringApplicationBuilder(LostAndFoundApplication.class)
+				.properties(
+						"server.port=0",
+						"spring.threads.virtual.enabled=" + virtualThreads,
+						"app.notifications.dispatcher.enabled=false",
+						"app.mongo.indexes.verify-on-startup=false")
+				.run()) {
+			String base = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+			load(base, WARM_UP);
+			return measure(mode, base);
+		}
+	}
+
+	private Result measure(String mode, String base) throws InterruptedException {
+		List<long[]> perClient = new ArrayList<>();
+		AtomicLong errors = new AtomicLong();
+		long startedAt = System.nanoTime();
+		runClients(base, MEASURE, perClient, errors);
+		double seconds = (System.nanoTime() - startedAt) / 1e9;
+
+		long[] latencies = perClient.stream().flatMapToLong(Arrays::stream).filter(nanos -> nanos > 0).sorted().toArray();
+		return new Result(mode, latencies.length, errors.get(), latencies.length / seconds,
+				percentile(latencies, 0.50), percentile(latencies, 0.99));
+	}
+
+	private void load(String base, Duration duration) throws InterruptedException {
+		runClients(base, duration, new ArrayList<>(), new AtomicLong());
+	}
+
+	// One virtual thread per client, each sending requests back to back until the time is up
+	private void runClients(String base, Duration duration, List<long[]> perClient, AtomicLong errors)
+			throws InterruptedException {
+		long deadline = System.nanoTime() + duration.toNanos();
+		HttpRequest request = HttpRequest.newBuilder(URI.create(base + PATH)).timeout(Duration.ofSeconds(30)).build();
+		try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+			 HttpClient http = HttpClient.newBuilder().executor(clients).build()) {
+			for (int i = 0; i < CLIENTS; i++) {
+				long[] latencies = new long[4096];	// ample for one client over MEASURE; later samples are dropped
+				perClient.add(latencies);
+				clients.submit(() -> {
+					int n = 0;
+					while (System.nanoTime() < deadline) {
+						long sentAt = System.nanoTime();
+						try {
+							HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+							if (response.statusCode() != 200) {
+								errors.incrementAndGet();
+							} else if (n < latencies.length) {
+								latencies[n++] = System.nanoTime() - sentAt;
+							}
+						} catch (Exception e) {
+							errors.incrementAndGet();
+						}
+					}
+				});
+			}
+			clients.shutdown();
+			clients.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS);
+		}
+	}
+
+	private static double percentile(long[] sorted, double p) {
+		if (sorted.length == 0) {
+			return Double.NaN;
+		}
+		return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)] / 1e6;
+	}
+}
@@ -0,0 +1,35 @@
+package com.example.LostAndFound.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+class ItemCursorTest {
+
+	private static final String ID = new ObjectId().toHexString();
+
+	@Test
+	void roundTripsThroughItsToken() {
+		ItemCursor cursor = new ItemCursor(LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_000_000), ID);
+
+		assertEquals(cursor, ItemCursor.decode(cursor.encode()));
+	}
+
+	@Test
+	void roundTripsWithoutDateReported() {
+		ItemCursor cursor = new ItemCursor(null, ID);
+
+		assertEquals(cursor, ItemCursor.decode(cursor.encode()));
+	}
+
+	@Test
+	void rejectsTokensItDidNotProduce() {
+		assertThrows(IllegalArgumentException.class, () -> ItemCursor.decode("not a cursor"));
+		assertThrows(IllegalArgumentException.class, () -> ItemCursor.decode(
+				new ItemCursor(LocalDateTime.of(2024, 5, 1, 0, 0), "not-an-object-id").encode()));
+	}
+}
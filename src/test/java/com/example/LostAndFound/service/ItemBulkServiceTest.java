@@ -0,0 +1,138 @@
+package com.example.LostAndFound.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.example.LostAndFound.entity.Item;
+import com.example.LostAndFound.entity.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class ItemBulkServiceTest {
+
+	private final List<Item> inserted = new ArrayList<>();
+	private ItemBulkService service;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		BulkOperations bulk = mock(BulkOperations.class, RETURNS_SELF);
+		when(bulk.insert(any(List.class))).thenAnswer(call -> {
+			inserted.addAll(call.getArgument(0));
+			return bulk;
+		});
+		MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+		when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Item.class)).thenReturn(bulk);
+
+		// Every userId starting with "u" exists
+		UserService userService = mock(UserService.class);
+		when(userService.getContactsByIds(anyCollection())).thenAnswer(call -> ((Collection<String>) call.getArgument(0))
+				.stream().filter(id -> id.startsWith("u")).collect(Collectors.toMap(Function.identity(), id -> new User())));
+
+		service = new ItemBulkService(mongoTemplate, userService, mock(ItemEventPublisher.class), new ObjectMapper(), 2, 10);
+	}
+
+	@Test
+	void csvQuotedFieldsKeepCommasEscapedQuotesAndLineBreaks() throws IOException {
+		ItemBulkService.ImportResult result = importCsv(
+				"itemName,userId,description,location\r\n"
+				+ "\"Wallet, black\",u1,\"Says \"\"J.D.\"\" inside\",Library\r\n"
+				+ "Umbrella,u2,\"Folding\nblue\",\"\"\r\n");
+
+		assertEquals(2, result.rows());
+		assertEquals(2, result.inserted());
+		assertTrue(result.errors().isEmpty());
+		assertEquals("Wallet, black", inserted.get(0).getItemName());
+		assertEquals("Says \"J.D.\" inside", inserted.get(0).getDescription());
+		assertEquals("Folding\nblue", inserted.get(1).getDescription());
+		assertNull(inserted.get(1).getLocation());
+	}
+
+	@Test
+	void csvBadRowsAreReportedWithTheLineTheyStartOn() throws IOException {
+		ItemBulkService.ImportResult result = importCsv(
+				"itemName,userId,status\n"
+				+ "\"Scarf\nred\",u1,LOST\n"
+				+ "Keys,u1,MISPLACED\n"
+				+ "\n"
+				+ ",u1,FOUND\n"
+				+ "Phone,x9,FOUND\n"
+				+ "Bag,u1,found\n");
+
+		assertEquals(5, result.rows());
+		assertEquals(2, result.inserted());
+		assertEquals(List.of(
+				new ItemBulkService.RowError(4, "Invalid status: MISPLACED"),
+				new ItemBulkService.RowError(6, "itemName is required"),
+				new ItemBulkService.RowError(7, "Unknown userId: x9")), result.errors());
+		assertEquals(Item.ItemStatus.FOUND, inserted.get(1).getStatus());
+	}
+
+	@Test
+	void csvUnterminatedQuoteEndsTheImportWithARowError() throws IOException {
+		ItemBulkService.ImportResult result = importCsv(
+				"itemName,userId\n"
+				+ "Wallet,u1\n"
+				+ "\"Umbrella,u1\n"
+				+ "Keys,u1\n");
+
+		assertEquals(2, result.rows());
+		assertEquals(1, result.inserted());
+		assertEquals(List.of(new ItemBulkService.RowError(3, "Unterminated quoted field starting on line 3")),
+				result.errors());
+	}
+
+	@Test
+	void ndjsonRowsUseDefaultUserAndReportInvalidLines() throws IOException {
+		ItemBulkService.ImportResult result = service.importItems(stream(
+				"{\"itemName\":\"Wallet\",\"status\":\"LOST\",\"dateReported\":\"2024-05-01\"}\n"
+				+ "\n"
+				+ "{\"itemName\":\"Keys\",\"userId\":\"u2\",\"dateReported\":\"2024-05-02T08:30:00\",\"location\":null}\n"
+				+ "{not json}\n"
+				+ "{\"itemName\":\"Phone\",\"dateReported\":\"yesterday\"}\n"),
+				ItemBulkService.Format.NDJSON, "u1");
+
+		assertEquals(4, result.rows());
+		assertEquals(2, result.inserted());
+		assertEquals(List.of(4L, 5L), result.errors().stream().map(ItemBulkService.RowError::line).toList());
+		assertEquals("Invalid dateReported: yesterday", result.errors().get(1).message());
+		assertFalse(result.errorsTruncated());
+
+		Map<String, Item> byName = inserted.stream().collect(Collectors.toMap(Item::getItemName, Function.identity()));
+		assertEquals("u1", byName.get("Wallet").getUserId());
+		assertEquals(LocalDateTime.of(2024, 5, 1, 0, 0), byName.get("Wallet").getDateReported());
+		assertEquals("u2", byName.get("Keys").getUserId());
+		assertEquals(LocalDateTime.of(2024, 5, 2, 8, 30), byName.get("Keys").getDateReported());
+		assertNull(byName.get("Keys").getLocation());
+	}
+
+	private ItemBulkService.ImportResult importCsv(String csv) throws IOException {
+		return service.importItems(stream(csv), ItemBulkService.Format.CSV, null);
+	}
+
+	private static ByteArrayInputStream stream(String text) {
+		return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,71 @@
+package com.example.LostAndFound.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.LostAndFound.entity.Item;
+
+class ItemMatchIndexTest {
+
+	private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+	@Test
+	void ranksRewordedReportOfTheSameItemFirst() {
+		ItemMatchIndex index = new ItemMatchIndex();
+		index.put(item("1", "Wallet (black leather)", "Wallet", "Lost near the main library", "Library", NOW.minusDays(1)));
+		index.put(item("2", "Blue umbrella", "Umbrella", "Folding umbrella", "Cafeteria", NOW.minusDays(1)));
+		index.put(item("3", "Brown wallet", "Wallet", "Has a bus pass inside", "Gym", NOW.minusDays(40)));
+
+		List<ItemMatchIndex.Match> matches = index.topMatches(
+				item(null, "black wallets", "Wallet", "Found on a bench", "Library entrance", NOW), 2);
+
+		assertEquals(2, matches.size());
+		assertEquals("1", matches.get(0).entry().id());
+		assertEquals("3", matches.get(1).entry().id());
+	}
+
+	@Test
+	void removedItemsAreNoLongerMatched() {
+		ItemMatchIndex index = new ItemMatchIndex();
+		index.put(item("1", "Black wallet", "Wallet", null, "Library", NOW));
+		index.remove("1");
+
+		assertTrue(index.topMatches(item(null, "Black wallet", "Wallet", null, "Library", NOW), 5).isEmpty());
+		assertEquals(0, index.size());
+	}
+
+	@Test
+	void commonTermsStillRankCandidatesFoundThroughRareOnes() {
+		ItemMatchIndex index = new ItemMatchIndex();
+		for (int i = 0; i < 200; i++) {
+			index.put(item("c" + i, "Phone charger", "Electronics", "Charging cable", "Library", NOW));
+		}
+		index.put(item("case", "Phone case", "Electronics", "Blue leather", "Gym", NOW));
+		index.put(item("sleeve", "Laptop sleeve", "Bag", "Blue leather", "Gym", NOW));
+
+		List<ItemMatchIndex.Match> matches = index.topMatches(
+				item(null, "Blue phone case", "Electronics", "leather", "Gym", NOW), 3);
+
+		// "phone" is in nearly every item, so it only breaks the tie between the two leather items
+		assertEquals(2, matches.size());
+		assertEquals("case", matches.get(0).entry().id());
+		assertEquals("sleeve", matches.get(1).entry().id());
+	}
+
+	private static Item item(String id, String name, String type, String description, String location,
+							 LocalDateTime reported) {
+		Item item = new Item();
+		item.setId(id);
+		item.setItemName(name);
+		item.setItemType(type);
+		item.setDescription(description);
+		item.setLocation(location);
+		item.setDateReported(reported);
+		return item;
+	}
+}
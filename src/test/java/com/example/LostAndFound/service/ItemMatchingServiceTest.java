@@ -0,0 +1,72 @@
+package com.example.LostAndFound.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.example.LostAndFound.entity.Item;
+import com.example.LostAndFound.event.ItemEvent;
+
+class ItemMatchingServiceTest {
+
+	private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 1, 12, 0);
+	private static final String[] OTHER_NAMES = { "Red scarf", "Laptop charger", "Student ID card", "Car keys",
+			"Green umbrella", "Sunglasses", "Headphones", "Notebook", "Calculator", "Jacket", "Backpack" };
+
+	@Test
+	void unrelatedNamesDoNotNotifyHoweverLargeTheIndex() {
+		for (int otherItems : new int[] { 5, 500 }) {
+			ItemMatchingService matching = serviceWith(otherItems);
+			matching.onItemEvent(new ItemEvent.Created(item("wallet", Item.ItemStatus.LOST, "Black wallet", "Wallet",
+					"Leather, has cards", "Library")));
+
+			// Trigram and location overlap only; raw BM25 scores here grow well past any fixed cutoff
+			assertEquals(List.of(), notified(matching, item(null, Item.ItemStatus.FOUND, "Blue water bottle", "Bottle",
+					"Metal", "Library")));
+			assertEquals(List.of(), notified(matching, item(null, Item.ItemStatus.FOUND, "Blackberry phone",
+					"Electronics", "Old phone", "Cafeteria")));
+		}
+	}
+
+	@Test
+	void rewordedReportOfTheSameItemNotifies() {
+		ItemMatchingService matching = serviceWith(500);
+		matching.onItemEvent(new ItemEvent.Created(item("wallet", Item.ItemStatus.LOST, "Wallet (black leather)",
+				"Wallet", "Lost near the main library", "Library")));
+
+		assertEquals(List.of("wallet"), notified(matching, item(null, Item.ItemStatus.FOUND, "black wallets", "Wallet",
+				"Found on a bench", "Library entrance")));
+	}
+
+	private static ItemMatchingService serviceWith(int otherLostItems) {
+		ItemMatchingService matching = new ItemMatchingService(mock(MongoTemplate.class), true, 10, 0.35, 1.0, 1.0, 14);
+		for (int i = 0; i < otherLostItems; i++) {
+			matching.onItemEvent(new ItemEvent.Created(item("other" + i, Item.ItemStatus.LOST,
+					OTHER_NAMES[i % OTHER_NAMES.length] + " " + i, "Other", "Left behind in room " + i, "Building " + i % 7)));
+		}
+		return matching;
+	}
+
+	private static List<String> notified(ItemMatchingService matching, Item foundItem) {
+		return matching.lostItemsToNotify(foundItem).stream().map(match -> match.entry().id()).toList();
+	}
+
+	private static Item item(String id, Item.ItemStatus status, String name, String type, String description,
+			String location) {
+		Item item = new Item();
+		item.setId(id);
+		item.setUserId("owner-" + id);
+		item.setStatus(status);
+		item.setItemName(name);
+		item.setItemType(type);
+		item.setDescription(description);
+		item.setLocation(location);
+		item.setDateReported(NOW);
+		return item;
+	}
+}
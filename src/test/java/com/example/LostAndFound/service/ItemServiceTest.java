@@ -0,0 +1,66 @@
+package com.example.LostAndFound.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.LostAndFound.entity.Item;
+import com.example.LostAndFound.repository.ImageStore;
+import com.example.LostAndFound.repository.ItemRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class ItemServiceTest {
+
+	private final ItemRepository itemRepository = mock(ItemRepository.class);
+	private final ItemService itemService = new ItemService(itemRepository, mock(ImageStore.class),
+			mock(ImageProcessingService.class), mock(ItemMatchingService.class), mock(ItemEventPublisher.class),
+			new ObjectMapper(), 20, 100, 200, 5, 200);
+
+	@BeforeEach
+	void saveReturnsItsArgument() {
+		when(itemRepository.save(any(Item.class))).thenAnswer(call -> call.getArgument(0));
+	}
+
+	@Test
+	void newFoundReportIsFlagged() {
+		assertEquals(Boolean.TRUE, itemService.saveItem(item(null, Item.ItemStatus.FOUND)).getNotificationsPending());
+	}
+
+	@Test
+	void editingAFoundItemDoesNotFlagItAgain() {
+		when(itemRepository.findStatusById("1")).thenReturn(Optional.of(item("1", Item.ItemStatus.FOUND)));
+
+		assertNull(itemService.saveItem(item("1", Item.ItemStatus.FOUND)).getNotificationsPending());
+	}
+
+	@Test
+	void becomingFoundIsFlagged() {
+		when(itemRepository.findStatusById("1")).thenReturn(Optional.of(item("1", Item.ItemStatus.LOST)));
+
+		assertEquals(Boolean.TRUE, itemService.saveItem(item("1", Item.ItemStatus.FOUND)).getNotificationsPending());
+	}
+
+	@Test
+	void editKeepsAFlagNotDispatchedYet() {
+		Item pending = item("1", Item.ItemStatus.FOUND);
+		pending.setNotificationsPending(true);
+		when(itemRepository.findStatusById("1")).thenReturn(Optional.of(pending));
+
+		assertEquals(Boolean.TRUE, itemService.saveItem(item("1", Item.ItemStatus.FOUND)).getNotificationsPending());
+	}
+
+	private static Item item(String id, Item.ItemStatus status) {
+		Item item = new Item();
+		item.setId(id);
+		item.setItemName("Black wallet");
+		item.setStatus(status);
+		return item;
+	}
+}
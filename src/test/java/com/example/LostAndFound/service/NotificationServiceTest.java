@@ -0,0 +1,58 @@
+package com.example.LostAndFound.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class NotificationServiceTest {
+
+	private final JavaMailSender mailSender = mock(JavaMailSender.class);
+	private final NotificationService notifications = new NotificationService(mailSender, new SimpleMeterRegistry(), 50, 1, 0);
+
+	@Test
+	void onlyListedMessagesFail() {
+		List<SimpleMailMessage> messages = messages(3);
+		Map<Object, Exception> failed = new LinkedHashMap<>();
+		failed.put(messages.get(1), new RuntimeException("550 mailbox unavailable"));
+		doThrow(new MailSendException(failed)).when(mailSender).send(any(SimpleMailMessage[].class));
+
+		List<Exception> results = notifications.deliverAll(messages);
+
+		assertNull(results.get(0));
+		assertNotNull(results.get(1));
+		assertNull(results.get(2));
+	}
+
+	@Test
+	void failureOnCloseAfterSendingIsNotRetried() {
+		doThrow(new MailSendException("Failed to close server connection after message sending"))
+				.when(mailSender).send(any(SimpleMailMessage[].class));
+
+		assertEquals(List.of(), notifications.deliverAll(messages(2)).stream().filter(e -> e != null).toList());
+	}
+
+	private static List<SimpleMailMessage> messages(int count) {
+		List<SimpleMailMessage> messages = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			SimpleMailMessage message = new SimpleMailMessage();
+			message.setTo("owner" + i + "@example.com");
+			messages.add(message);
+		}
+		return messages;
+	}
+}
@@ -0,0 +1,94 @@
+package com.example.LostAndFound.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.example.LostAndFound.config.JwtAuthenticationFilter;
+import com.example.LostAndFound.dto.SignupRequest;
+import com.example.LostAndFound.dto.UserPatchRequest;
+import com.example.LostAndFound.entity.User;
+import com.example.LostAndFound.repository.ImageStore;
+import com.example.LostAndFound.repository.UserRepository;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+class UserServiceTest {
+
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final PasswordHashingService passwordHashing = mock(PasswordHashingService.class);
+	private final ImageStore imageStore = mock(ImageStore.class);
+	private final UserService userService = new UserService(userRepository, passwordHashing, imageStore,
+			mock(CacheManager.class));
+
+	@AfterEach
+	void clearContext() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void signupAsAdminStillGetsRoleUser() throws Exception {
+		// Deserialized like Spring Boot does: unknown properties such as userType are ignored
+		SignupRequest request = JsonMapper.builder().findAndAddModules()
+				.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES).build()
+				.readValue("""
+						{"firstName":"Eve","lastName":"Smith","username":"eve","email":"eve@example.com",
+						 "password":"secret1","dateOfBirth":"1990-01-01","gender":"Female","userType":"Admin"}
+						""", SignupRequest.class);
+
+		AtomicReference<User> inserted = new AtomicReference<>();
+		when(userRepository.insert(any(User.class))).thenAnswer(call -> {
+			User user = call.getArgument(0);
+			user.setUserId("aaaaaaaaaaaaaaaaaaaaaaaa");
+			inserted.set(user);
+			return user;
+		});
+		when(passwordHashing.encode(anyString())).thenReturn("$2a$10$hash");
+
+		assertEquals("User registered successfully!", userService.registerUser(request));
+		assertEquals(User.UserType.User, inserted.get().getUserType());
+
+		JwtService jwtService = new JwtService("", 900);
+		MockHttpServletRequest login = new MockHttpServletRequest();
+		login.addHeader("Authorization", "Bearer " + jwtService.issueAccessToken(inserted.get()));
+		new JwtAuthenticationFilter(jwtService).doFilter(login, new MockHttpServletResponse(), new MockFilterChain());
+
+		assertEquals(List.of("ROLE_USER"), SecurityContextHolder.getContext().getAuthentication().getAuthorities()
+				.stream().map(GrantedAuthority::getAuthority).toList());
+	}
+
+	@Test
+	void malformedPictureInPatchIsRejectedBeforeAnythingIsStored() {
+		UserPatchRequest patch = new UserPatchRequest();
+		patch.setProfilePicture("not base64!");
+
+		assertEquals("Profile picture is not valid base64", userService.patchUser("eve", patch));
+		verifyNoInteractions(imageStore, userRepository);
+	}
+
+	@Test
+	void malformedLegacyPictureIsSkipped() {
+		User stored = new User();
+		stored.setProfilePicture("not base64!");
+		when(userRepository.findProfilePictureByUsername("eve")).thenReturn(Optional.of(stored));
+
+		assertTrue(userService.getProfilePicture("eve").isEmpty());
+	}
+}